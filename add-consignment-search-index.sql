@@ -0,0 +1,18 @@
+-- Backs GET /api/consignments/search: one lower-cased document per consignment holding the
+-- searchable fields, kept current by PostgreSQL itself, with a trigram index over it.
+-- Requires PostgreSQL 12+ (generated columns) and the pg_trgm extension.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE consignments ADD COLUMN IF NOT EXISTS search_document TEXT
+    GENERATED ALWAYS AS (lower(
+        id || ' ' || coalesce(customer, '') || ' ' || coalesce(destination, '') || ' '
+        || coalesce(email, '') || ' ' || coalesce(contact, '')
+    )) STORED;
+
+-- GIN serves both the word-similarity operator (<%) and LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_consignments_search_document
+    ON consignments USING GIN (search_document gin_trgm_ops);
+
+-- Refresh planner statistics for the new column
+ANALYZE consignments;
@@ -0,0 +1,14 @@
+-- Keyset pagination orders on (created_at, id); these indexes let each page
+-- start with an index seek instead of scanning and sorting the whole table
+
+CREATE INDEX IF NOT EXISTS idx_consignments_created_at_id
+    ON consignments (created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_consignments_status_created_at_id
+    ON consignments (status, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_trucks_created_at_id
+    ON trucks (created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_trucks_status_created_at_id
+    ON trucks (status, created_at, id);
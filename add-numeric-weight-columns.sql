@@ -0,0 +1,43 @@
+-- Numeric kilogram columns next to the free-form weight and capacity strings.
+-- The application fills them on every write; this script adds them, backfills
+-- existing rows and indexes them for range filters.
+
+-- Mirrors com.courier.service.Kilograms: a number with an optional unit,
+-- bare numbers are kilograms. Returns NULL for anything it cannot read.
+CREATE OR REPLACE FUNCTION parse_kilograms(value TEXT) RETURNS DOUBLE PRECISION AS $$
+DECLARE
+    parts TEXT[];
+    amount DOUBLE PRECISION;
+BEGIN
+    parts := regexp_match(lower(value), '^\s*([0-9][0-9,]*(?:\.[0-9]+)?|\.[0-9]+)\s*([a-z]*)\.?\s*$');
+    IF parts IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    amount := replace(parts[1], ',', '')::DOUBLE PRECISION;
+    RETURN CASE
+        WHEN parts[2] IN ('', 'kg', 'kgs', 'kilo', 'kilos', 'kilogram', 'kilograms') THEN amount
+        WHEN parts[2] IN ('g', 'gram', 'grams') THEN amount * 0.001
+        WHEN parts[2] IN ('t', 'ton', 'tons', 'tonne', 'tonnes') THEN amount * 1000
+        WHEN parts[2] IN ('lb', 'lbs', 'pound', 'pounds') THEN amount * 0.45359237
+        ELSE NULL
+    END;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE consignments ADD COLUMN IF NOT EXISTS weight_kg DOUBLE PRECISION;
+ALTER TABLE trucks ADD COLUMN IF NOT EXISTS capacity_kg DOUBLE PRECISION;
+
+UPDATE consignments SET weight_kg = parse_kilograms(weight) WHERE weight_kg IS NULL AND weight IS NOT NULL;
+UPDATE trucks SET capacity_kg = parse_kilograms(capacity) WHERE capacity_kg IS NULL AND capacity IS NOT NULL;
+
+-- Rows the parser could not read stay NULL and drop out of range filters; list them for cleanup
+SELECT 'consignment' AS kind, id, weight AS raw FROM consignments WHERE weight_kg IS NULL AND weight IS NOT NULL
+UNION ALL
+SELECT 'truck', id, capacity FROM trucks WHERE capacity_kg IS NULL AND capacity IS NOT NULL;
+
+-- Range filters, alone and combined with the status filter the list endpoints use most
+CREATE INDEX IF NOT EXISTS idx_consignments_weight_kg ON consignments (weight_kg);
+CREATE INDEX IF NOT EXISTS idx_consignments_status_weight_kg ON consignments (status, weight_kg);
+CREATE INDEX IF NOT EXISTS idx_trucks_capacity_kg ON trucks (capacity_kg);
+CREATE INDEX IF NOT EXISTS idx_trucks_status_capacity_kg ON trucks (status, capacity_kg);
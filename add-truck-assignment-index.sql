@@ -0,0 +1,5 @@
+-- Truck listings resolve the assigned consignment through consignments.truck_id
+-- in the same statement, so that lookup has to be an index probe
+CREATE INDEX IF NOT EXISTS idx_consignments_truck_id
+    ON consignments (truck_id)
+    WHERE truck_id IS NOT NULL;
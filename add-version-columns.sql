@@ -0,0 +1,11 @@
+-- Optimistic locking columns for consignments and trucks.
+-- Must run before deploying entities mapped with @Version: existing rows
+-- need a non-null starting version.
+
+ALTER TABLE consignments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE trucks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Supports the SKIP LOCKED "next free truck" lookup
+CREATE INDEX IF NOT EXISTS idx_trucks_available_updated_at
+    ON trucks (updated_at)
+    WHERE status = 'available';
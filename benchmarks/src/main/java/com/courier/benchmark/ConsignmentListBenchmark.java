@@ -0,0 +1,64 @@
+package com.courier.benchmark;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageResponse;
+import com.courier.service.ConsignmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reads consignments through the service: row fetch plus projection into ConsignmentDTO
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ConsignmentListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+    
+    private CourierFixture fixture;
+    private ConsignmentService consignmentService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CourierFixture.start();
+        fixture.seedConsignments(rows);
+        consignmentService = fixture.bean(ConsignmentService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public List<ConsignmentDTO> listAll() {
+        return consignmentService.getAllConsignments();
+    }
+    
+    @Benchmark
+    public PageResponse<ConsignmentDTO> firstPage() {
+        return consignmentService.getConsignmentPage("pending", null, null, null, null, null, 100);
+    }
+    
+    @Benchmark
+    public PageResponse<ConsignmentDTO> weightRangePage() {
+        return consignmentService.getConsignmentPage(null, 500.0, 1000.0, null, null, null, 100);
+    }
+}
@@ -0,0 +1,160 @@
+package com.courier.benchmark;
+
+import com.courier.CourierManagementSystemApplication;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import com.courier.service.FleetIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Boots the real application context against an in-memory H2 database ("bench" profile)
+// and seeds it with generated rows through plain JDBC batches. The context is a servlet one on a
+// random port: the web security configuration needs the MVC handler mapping introspector.
+public final class CourierFixture implements AutoCloseable {
+
+    private static final int SEED_BATCH_SIZE = 5_000;
+    
+    private static final String[] CONSIGNMENT_TYPES = {"parcel", "package", "freight"};
+    private static final String[] TRUCK_TYPES = {"Delivery Van", "Box Truck", "Semi-Trailer"};
+    private static final String[] CITIES = {"New York, NY", "Chicago, IL", "Los Angeles, CA", "Miami, FL", "Boston, MA"};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+    
+    private CourierFixture(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+    
+    public static CourierFixture start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CourierManagementSystemApplication.class)
+                .profiles("bench")
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "management.server.port=-1")
+                .logStartupInfo(false)
+                .run();
+        return new CourierFixture(context);
+    }
+    
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    public void seedConsignments(int count) {
+        String sql = "INSERT INTO consignments (id, customer, type, weight, weight_kg, destination, status, date, "
+                + "contact, email, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+        
+        for (int from = 0; from < count; from += SEED_BATCH_SIZE) {
+            List<ConsignmentDTO> rows = IntStream.range(from, Math.min(from + SEED_BATCH_SIZE, count))
+                    .mapToObj(CourierFixture::consignment)
+                    .collect(Collectors.toList());
+            jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.getId());
+                ps.setString(2, row.getCustomer());
+                ps.setString(3, row.getType());
+                ps.setString(4, row.getWeight());
+                ps.setObject(5, row.getWeightKg(), Types.DOUBLE);
+                ps.setString(6, row.getDestination());
+                ps.setString(7, row.getStatus());
+                ps.setObject(8, row.getDate());
+                ps.setString(9, row.getContact());
+                ps.setString(10, row.getEmail());
+                ps.setObject(11, row.getCreatedAt());
+                ps.setObject(12, row.getUpdatedAt());
+            });
+        }
+    }
+    
+    public void seedTrucks(int count) {
+        String sql = "INSERT INTO trucks (id, driver, type, capacity, capacity_kg, location, status, last_maintenance, "
+                + "version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+        
+        for (int from = 0; from < count; from += SEED_BATCH_SIZE) {
+            List<TruckDTO> rows = IntStream.range(from, Math.min(from + SEED_BATCH_SIZE, count))
+                    .mapToObj(CourierFixture::truck)
+                    .collect(Collectors.toList());
+            jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.getId());
+                ps.setString(2, row.getDriver());
+                ps.setString(3, row.getType());
+                ps.setString(4, row.getCapacity());
+                ps.setObject(5, row.getCapacityKg(), Types.DOUBLE);
+                ps.setString(6, row.getLocation());
+                ps.setString(7, row.getStatus());
+                ps.setObject(8, row.getLastMaintenance());
+                ps.setObject(9, row.getCreatedAt());
+                ps.setObject(10, row.getUpdatedAt());
+            });
+        }
+        
+        // The fleet index loads once at startup; pick up the seeded trucks
+        bean(FleetIndex.class).load();
+    }
+    
+    @Override
+    public void close() {
+        context.close();
+    }
+    
+    // Deterministic sample rows, also used directly by the serialization benchmarks
+    public static ConsignmentDTO consignment(int i) {
+        int weightKg = 1 + (i * 37) % 2_000;
+        ConsignmentDTO dto = new ConsignmentDTO();
+        dto.setId(String.format("CCM%08d", i));
+        dto.setCustomer("Customer " + i);
+        dto.setType(CONSIGNMENT_TYPES[i % CONSIGNMENT_TYPES.length]);
+        dto.setWeight(weightKg + " kg");
+        dto.setWeightKg((double) weightKg);
+        dto.setDestination(CITIES[i % CITIES.length]);
+        dto.setStatus("pending");
+        dto.setDate(EPOCH.toLocalDate().plusDays(i % 365));
+        dto.setContact("555-" + String.format("%04d", i % 10_000));
+        dto.setEmail("customer" + i + "@example.com");
+        dto.setCreatedAt(EPOCH.plusSeconds(i));
+        dto.setUpdatedAt(EPOCH.plusSeconds(i));
+        return dto;
+    }
+    
+    public static TruckDTO truck(int i) {
+        int capacityKg = 1_000 * (1 + i % 20);
+        TruckDTO dto = new TruckDTO();
+        dto.setId(String.format("TRK-%06d", i));
+        dto.setDriver("Driver " + i);
+        dto.setType(TRUCK_TYPES[i % TRUCK_TYPES.length]);
+        dto.setCapacity(capacityKg + " kg");
+        dto.setCapacityKg((double) capacityKg);
+        dto.setLocation(CITIES[(i / 3) % CITIES.length]);
+        dto.setStatus("available");
+        dto.setLastMaintenance(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        dto.setCreatedAt(EPOCH.plusSeconds(i));
+        dto.setUpdatedAt(EPOCH.plusSeconds(i));
+        return dto;
+    }
+    
+    public static List<ConsignmentDTO> consignments(int count) {
+        List<ConsignmentDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(consignment(i));
+        }
+        return rows;
+    }
+    
+    public static List<TruckDTO> trucks(int count) {
+        List<TruckDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(truck(i));
+        }
+        return rows;
+    }
+}
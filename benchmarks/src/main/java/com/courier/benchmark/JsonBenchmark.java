@@ -0,0 +1,69 @@
+package com.courier.benchmark;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON encoding of list responses with the ObjectMapper settings Spring Boot applies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class JsonBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+    
+    private ObjectWriter consignmentWriter;
+    private ObjectWriter truckWriter;
+    private List<ConsignmentDTO> consignments;
+    private List<TruckDTO> trucks;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        consignmentWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ConsignmentDTO.class));
+        truckWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, TruckDTO.class));
+        consignments = CourierFixture.consignments(rows);
+        trucks = CourierFixture.trucks(rows);
+    }
+    
+    // Writing to a null stream keeps buffer growth out of the measurement
+    @Benchmark
+    public void encodeConsignments() throws IOException {
+        consignmentWriter.writeValue(OutputStream.nullOutputStream(), consignments);
+    }
+    
+    @Benchmark
+    public void encodeTrucks() throws IOException {
+        truckWriter.writeValue(OutputStream.nullOutputStream(), trucks);
+    }
+    
+    @Benchmark
+    public byte[] encodeConsignmentsToBytes() throws IOException {
+        return consignmentWriter.writeValueAsBytes(consignments);
+    }
+}
@@ -0,0 +1,108 @@
+package com.courier.benchmark;
+
+import com.courier.config.MessageFormatConfig;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Size and CPU cost of a consignment list page in each negotiated response format.
+// "json-gzip" is JSON plus the gzip the server applies when the client accepts it.
+// The encoded size of every format is printed once per trial, next to the timings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class PayloadBenchmark {
+
+    @Param({"json", "json-gzip", "cbor", "smile"})
+    private String format;
+    
+    @Param({"1000", "100000"})
+    private int rows;
+    
+    private boolean gzip;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private PageResponse<ConsignmentDTO> page;
+    private byte[] encoded;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper;
+        switch (format) {
+            case "json":
+            case "json-gzip":
+                objectMapper = bootBuilder().build();
+                break;
+            case "cbor":
+                objectMapper = MessageFormatConfig.cborMapper(bootBuilder());
+                break;
+            case "smile":
+                objectMapper = MessageFormatConfig.smileMapper(bootBuilder());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        gzip = format.endsWith("-gzip");
+        
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(PageResponse.class, ConsignmentDTO.class);
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+        page = new PageResponse<>(CourierFixture.consignments(rows), "next");
+        
+        encoded = encode();
+        System.out.printf("%n%s, %d rows: %,d bytes%n", format, rows, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return writer.writeValueAsBytes(page);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            writer.writeValue(out, page);
+        }
+        return buffer.toByteArray();
+    }
+    
+    @Benchmark
+    public PageResponse<ConsignmentDTO> decode() throws IOException {
+        InputStream in = new ByteArrayInputStream(encoded);
+        try (InputStream body = gzip ? new GZIPInputStream(in) : in) {
+            return reader.readValue(body);
+        }
+    }
+    
+    // Spring Boot writes dates as ISO strings in JSON
+    private static Jackson2ObjectMapperBuilder bootBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,64 @@
+package com.courier.benchmark;
+
+import com.courier.dto.PageResponse;
+import com.courier.dto.TruckDTO;
+import com.courier.service.TruckService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares truck reads served by the fleet index with the same reads from the database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class TruckListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+    
+    private CourierFixture fixture;
+    private TruckService truckService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CourierFixture.start();
+        fixture.seedTrucks(rows);
+        truckService = fixture.bean(TruckService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public List<TruckDTO> listFromDatabase() {
+        return truckService.getAllTrucks();
+    }
+    
+    @Benchmark
+    public List<TruckDTO> availableFromIndex() {
+        return truckService.getTrucksByStatus("available");
+    }
+    
+    @Benchmark
+    public PageResponse<TruckDTO> filteredPage() {
+        return truckService.getTruckPage("available", "Box Truck", "Chicago, IL", 5000.0, null, null, null, null, 100);
+    }
+}
@@ -0,0 +1,79 @@
+package com.courier.benchmark;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import com.courier.service.ConsignmentService;
+import com.courier.service.TruckService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// End-to-end write paths through the services, including transactions and the after-commit hooks
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class WriteBenchmark {
+
+    private CourierFixture fixture;
+    private ConsignmentService consignmentService;
+    private TruckService truckService;
+    private ConsignmentDTO template;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CourierFixture.start();
+        fixture.seedTrucks(1_000);
+        consignmentService = fixture.bean(ConsignmentService.class);
+        truckService = fixture.bean(TruckService.class);
+        template = CourierFixture.consignment(0);
+        template.setId(null);
+        template.setDate(null);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public ConsignmentDTO createConsignment() {
+        return consignmentService.createConsignment(template);
+    }
+    
+    // Allocating and releasing returns the pair to its starting state, so every call does the same work
+    @Benchmark
+    public TruckDTO allocateAndRelease(Pair pair) {
+        consignmentService.allocateTruck(pair.consignmentId, pair.truckId);
+        return truckService.markAsAvailable(pair.truckId);
+    }
+    
+    // One pending consignment and one available truck per benchmark thread
+    @State(Scope.Thread)
+    public static class Pair {
+        String consignmentId;
+        String truckId;
+        
+        @Setup(Level.Trial)
+        public void setUp(WriteBenchmark benchmark) {
+            consignmentId = benchmark.consignmentService.createConsignment(benchmark.template).getId();
+            
+            TruckDTO truck = CourierFixture.truck(0);
+            truck.setId(null);
+            truckId = benchmark.truckService.createTruck(truck).getId();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Converts consignments.date and trucks.last_maintenance from text to DATE.
+-- Existing rows hold either the API's "Mon DD, YYYY" form or ISO "YYYY-MM-DD".
+-- Must run before deploying entities that map these columns as LocalDate.
+
+-- Returns NULL for text in neither form instead of failing the whole conversion
+CREATE OR REPLACE FUNCTION parse_display_date(value TEXT) RETURNS DATE AS $$
+BEGIN
+    IF value ~ '^\s*\d{4}-\d{2}-\d{2}\s*$' THEN
+        RETURN to_date(trim(value), 'YYYY-MM-DD');
+    ELSIF value ~* '^\s*[a-z]{3} \d{1,2}, \d{4}\s*$' THEN
+        RETURN to_date(trim(value), 'Mon DD, YYYY');
+    END IF;
+    RETURN NULL;
+EXCEPTION WHEN others THEN
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'consignments' AND column_name = 'date') <> 'date' THEN
+        -- Keep the original text for any value that did not parse
+        ALTER TABLE consignments ADD COLUMN IF NOT EXISTS date_text TEXT;
+        UPDATE consignments SET date_text = date WHERE parse_display_date(date) IS NULL;
+
+        ALTER TABLE consignments ALTER COLUMN date DROP NOT NULL;
+        ALTER TABLE consignments ALTER COLUMN date TYPE DATE USING parse_display_date(date);
+    END IF;
+
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'trucks' AND column_name = 'last_maintenance') <> 'date' THEN
+        ALTER TABLE trucks ADD COLUMN IF NOT EXISTS last_maintenance_text TEXT;
+        UPDATE trucks SET last_maintenance_text = last_maintenance WHERE parse_display_date(last_maintenance) IS NULL;
+
+        ALTER TABLE trucks ALTER COLUMN last_maintenance DROP NOT NULL;
+        ALTER TABLE trucks ALTER COLUMN last_maintenance TYPE DATE USING parse_display_date(last_maintenance);
+    END IF;
+END $$;
+
+-- Backs the from/to filters on the list endpoints
+CREATE INDEX IF NOT EXISTS idx_consignments_date ON consignments (date);
+CREATE INDEX IF NOT EXISTS idx_trucks_last_maintenance ON trucks (last_maintenance);
@@ -0,0 +1,43 @@
+-- Cold storage for delivered consignments (ConsignmentArchive). Rows delivered more than
+-- courier.archive.min-age-days ago are moved here in small chunks so the consignments table and
+-- its indexes only hold active work. By-id reads fall back to this table.
+--
+-- Range partitioned by delivery month (updated_at of the delivered row). The mover creates each
+-- month's partition (consignments_archive_YYYY_MM) before moving rows into it; an old month can
+-- later be detached or dropped as a whole.
+--
+-- Rollups keep counting archived rows: rebuild them with POST /api/reports/rollups/rebuild rather
+-- than by re-running create-consignment-rollups.sql, which only reads the hot table.
+
+CREATE TABLE IF NOT EXISTS consignments_archive (
+    id TEXT NOT NULL,
+    customer TEXT,
+    type TEXT,
+    weight TEXT,
+    weight_kg DOUBLE PRECISION,
+    destination TEXT,
+    status TEXT,
+    date DATE,
+    truck_id TEXT,
+    contact TEXT,
+    email TEXT,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    -- The key must contain the partition column; each partition's index serves lookups by id
+    PRIMARY KEY (id, updated_at)
+) PARTITION BY RANGE (updated_at);
+
+-- Mover scan: oldest delivered rows first; shrinks as the hot table drains
+CREATE INDEX IF NOT EXISTS idx_consignments_delivered_updated_at
+    ON consignments (updated_at)
+    WHERE status = 'delivered';
+
+-- "Does a ticket still reference this consignment?" check before a row is moved
+CREATE INDEX IF NOT EXISTS idx_support_tickets_consignment_id
+    ON support_tickets (consignment_id)
+    WHERE consignment_id IS NOT NULL;
+
+-- The mover deletes steadily; vacuum the hot table sooner so freed space is reused
+ALTER TABLE consignments SET (autovacuum_vacuum_scale_factor = 0.05);
@@ -0,0 +1,23 @@
+-- Daily consignment rollups behind /api/reports. The application keeps them current on every
+-- consignment write; this script creates the table and fills it from the existing rows.
+-- Re-running it (or POST /api/reports/rollups/rebuild) recomputes everything from scratch.
+
+CREATE TABLE IF NOT EXISTS consignment_daily_rollups (
+    rollup_date DATE NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    destination VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    consignment_count BIGINT NOT NULL DEFAULT 0,
+    weight_kg DOUBLE PRECISION NOT NULL DEFAULT 0,
+    PRIMARY KEY (rollup_date, status, destination, type)
+);
+
+BEGIN;
+LOCK TABLE consignment_daily_rollups IN EXCLUSIVE MODE;
+DELETE FROM consignment_daily_rollups;
+INSERT INTO consignment_daily_rollups (rollup_date, status, destination, type, consignment_count, weight_kg)
+SELECT COALESCE(date, CAST(created_at AS DATE)), COALESCE(status, ''), COALESCE(destination, ''),
+       COALESCE(type, ''), COUNT(*), COALESCE(SUM(weight_kg), 0)
+FROM consignments
+GROUP BY 1, 2, 3, 4;
+COMMIT;
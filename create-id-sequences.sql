@@ -0,0 +1,12 @@
+-- Pooled id sequences: each nextval() reserves a block of 100 ids for one node,
+-- so INCREMENT BY must match courier.id.block-size.
+-- Start values sit above the ranges used by the old random generators
+-- (CCM0..CCM9999999 and TRK-0..TRK-999) so new ids never collide with them.
+
+CREATE SEQUENCE IF NOT EXISTS consignment_id_seq
+    START WITH 10000000
+    INCREMENT BY 100;
+
+CREATE SEQUENCE IF NOT EXISTS truck_id_seq
+    START WITH 1000
+    INCREMENT BY 100;
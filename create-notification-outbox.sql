@@ -0,0 +1,29 @@
+-- Transactional outbox for customer notifications (NotificationOutbox / OutboxDispatcher)
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id TEXT NOT NULL,
+    event_type TEXT NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    status TEXT NOT NULL DEFAULT 'pending',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMP
+);
+
+-- Claim scan: pending messages in id order; stays as small as the backlog
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_pending
+    ON notification_outbox (id)
+    WHERE status = 'pending';
+
+-- "Is there an older pending message for this consignment?" check behind per-consignment ordering
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_pending_aggregate
+    ON notification_outbox (aggregate_id, id)
+    WHERE status = 'pending';
+
+-- Purge of sent messages past the retention window
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_sent_at
+    ON notification_outbox (sent_at)
+    WHERE status = 'sent';
@@ -0,0 +1,43 @@
+-- Support ticket work queue (TicketService)
+
+-- Pooled ids for TKT- tickets; INCREMENT BY must match courier.id.block-size
+CREATE SEQUENCE IF NOT EXISTS ticket_id_seq
+    START WITH 1000
+    INCREMENT BY 100;
+
+ALTER TABLE support_tickets ADD COLUMN IF NOT EXISTS priority_rank SMALLINT;
+ALTER TABLE support_tickets ADD COLUMN IF NOT EXISTS assigned_to TEXT;
+ALTER TABLE support_tickets ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP;
+
+-- Existing tickets: rank 0 is the most urgent, unknown priorities queue last
+UPDATE support_tickets
+SET priority_rank = CASE priority
+        WHEN 'urgent' THEN 0
+        WHEN 'high' THEN 1
+        WHEN 'medium' THEN 2
+        WHEN 'low' THEN 3
+        ELSE 4
+    END
+WHERE priority_rank IS NULL;
+
+-- Claim order over open tickets only; the index stays as small as the backlog
+-- and each claim reads its first unlocked entry
+CREATE INDEX IF NOT EXISTS idx_support_tickets_queue
+    ON support_tickets (priority_rank, created_at, id)
+    WHERE status = 'open';
+
+-- Inboxes page newest first by owner or claiming agent; the included columns
+-- cover the inbox rows so pages are served by index-only scans
+CREATE INDEX IF NOT EXISTS idx_support_tickets_user_inbox
+    ON support_tickets (user_id, created_at DESC, id DESC)
+    INCLUDE (subject, category, priority, status, updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_support_tickets_assigned_inbox
+    ON support_tickets (assigned_to, created_at DESC, id DESC)
+    INCLUDE (subject, category, priority, status, updated_at)
+    WHERE assigned_to IS NOT NULL;
+
+-- Queue depth recount (status, priority) over the active statuses
+CREATE INDEX IF NOT EXISTS idx_support_tickets_active_status_priority
+    ON support_tickets (status, priority)
+    WHERE status IN ('open', 'in-progress');
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Runs the same k6 load against the backend on platform threads and on virtual threads
+# and prints throughput and p99 for the list and allocate endpoints side by side.
+#
+# Needs: Java 21+ (for the virtual run), k6, jq, a reachable Postgres configured as for the app.
+# Usage: load/compare.sh [path/to/app.jar]   (VUS, DURATION, PORT, AUTH_TOKEN are honoured)
+set -euo pipefail
+
+JAR="${1:-$(ls target/courier-management-system-*-exec.jar | head -n 1)}"
+PORT="${PORT:-8080}"
+RESULTS=load/results
+mkdir -p "$RESULTS"
+
+run_mode() {
+  local mode="$1" virtual="$2"
+  echo "== $mode threads" >&2
+
+  java -jar "$JAR" --server.port="$PORT" --courier.threads.virtual="$virtual" \
+    --spring.profiles.active=prod > "$RESULTS/$mode.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  for _ in $(seq 1 60); do
+    curl -s -o /dev/null "http://localhost:$PORT/" && break
+    sleep 1
+  done
+
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e SUMMARY="$RESULTS/$mode.json" load/endpoints.js >&2
+}
+
+report() {
+  local mode="$1" endpoint="$2" file="$RESULTS/$1.json"
+  jq -r --arg e "$endpoint" --arg m "$mode" '
+    [$m, $e,
+     (.metrics["http_reqs{endpoint:" + $e + "}"].values.rate | floor),
+     (.metrics["http_req_duration{endpoint:" + $e + "}"].values["p(99)"] * 100 | round / 100)]
+    | @tsv' "$file"
+}
+
+run_mode platform false
+run_mode virtual true
+
+{
+  printf 'mode\tendpoint\treq/s\tp99 ms\n'
+  for mode in platform virtual; do
+    for endpoint in list allocate; do
+      report "$mode" "$endpoint"
+    done
+  done
+} | column -t
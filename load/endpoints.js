@@ -0,0 +1,74 @@
+// k6 load profile for the list and allocate endpoints; driven by load/compare.sh.
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 -e DURATION=60s load/endpoints.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200', 10);
+const DURATION = __ENV.DURATION || '60s';
+const SUMMARY = __ENV.SUMMARY || 'load/results/summary.json';
+
+const params = {
+  headers: Object.assign(
+    { 'Content-Type': 'application/json' },
+    __ENV.AUTH_TOKEN ? { Authorization: `Bearer ${__ENV.AUTH_TOKEN}` } : {},
+  ),
+};
+
+export const options = {
+  scenarios: {
+    list: { executor: 'constant-vus', exec: 'list', vus: VUS, duration: DURATION },
+    allocate: { executor: 'constant-vus', exec: 'allocate', vus: VUS, duration: DURATION },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  // Empty thresholds make k6 report these per-endpoint sub-metrics in the summary
+  thresholds: {
+    'http_reqs{endpoint:list}': [],
+    'http_req_duration{endpoint:list}': [],
+    'http_reqs{endpoint:allocate}': [],
+    'http_req_duration{endpoint:allocate}': [],
+  },
+};
+
+// One pending consignment and one available truck per allocate VU
+export function setup() {
+  const trucks = [];
+  for (let i = 0; i < VUS; i++) {
+    const res = http.post(`${BASE_URL}/api/trucks`, JSON.stringify({
+      driver: `Load Driver ${i}`, type: 'Box Truck', capacity: '5000 kg', location: 'Chicago, IL',
+    }), params);
+    trucks.push(res.json('id'));
+  }
+
+  const rows = [];
+  for (let i = 0; i < VUS; i++) {
+    rows.push({ customer: `Load Customer ${i}`, type: 'package', weight: '20 kg', destination: 'Chicago, IL' });
+  }
+  const batch = http.post(`${BASE_URL}/api/consignments/batch`, JSON.stringify(rows), params);
+  const consignments = batch.json('items').map((item) => item.id);
+
+  return { trucks, consignments };
+}
+
+export function list() {
+  const res = http.get(`${BASE_URL}/api/consignments?limit=100`, Object.assign({ tags: { endpoint: 'list' } }, params));
+  check(res, { 'list 200': (r) => r.status === 200 });
+  const trucks = http.get(`${BASE_URL}/api/trucks?limit=100`, Object.assign({ tags: { endpoint: 'list' } }, params));
+  check(trucks, { 'list 200': (r) => r.status === 200 });
+}
+
+// Allocate, then release again so every iteration starts from the same state
+export function allocate(data) {
+  const consignmentId = data.consignments[(__VU - 1) % data.consignments.length];
+  const truckId = data.trucks[(__VU - 1) % data.trucks.length];
+
+  const res = http.post(`${BASE_URL}/api/consignments/${consignmentId}/allocate/${truckId}`, null,
+    Object.assign({ tags: { endpoint: 'allocate' } }, params));
+  check(res, { 'allocate 200': (r) => r.status === 200 });
+
+  http.post(`${BASE_URL}/api/trucks/${truckId}/available`, null, Object.assign({ tags: { endpoint: 'release' } }, params));
+}
+
+export function handleSummary(data) {
+  return { [SUMMARY]: JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,71 @@
+package com.courier.cache;
+
+import com.courier.datasource.ReadRouting;
+import com.courier.service.AfterCommitCollector;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Bounded by-id cache of read DTOs. Entries are shared between callers and must not be modified.
+// Writers invalidate an id twice: at once, so their own transaction never reads the old row back,
+// and again after commit, which also drops a value a concurrent reader loaded before the commit.
+// A load that overlaps the commit finishes first (per-key compute), so the post-commit invalidation
+// always wins and no stale entry survives a write.
+// As a MeterBinder bean its hit/miss/eviction stats are also published as cache.* metrics.
+public class DtoCache<V> implements MeterBinder {
+
+    private final String name;
+    private final Cache<String, V> cache;
+    private final AfterCommitCollector<String> pendingInvalidations;
+    private final TransactionTemplate loadTemplate;
+    
+    public DtoCache(String name, long maximumSize, Duration timeToLive, PlatformTransactionManager transactionManager) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.pendingInvalidations = new AfterCommitCollector<>(cache::invalidateAll);
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setReadOnly(true);
+    }
+    
+    // Returns null without caching when the loader finds nothing.
+    // Loads read the primary: a lagging replica could refill the cache with the row a writer just replaced.
+    // A load runs in a read-only transaction (or joins the caller's): with open-in-view off, a streamed
+    // query has no connection to read from outside one. Hits never touch the database.
+    public V get(String id, Function<String, V> loader) {
+        return cache.get(id, key -> ReadRouting.onPrimary(() -> loadTemplate.execute(status -> loader.apply(key))));
+    }
+    
+    public void invalidateAfterCommit(String id) {
+        cache.invalidate(id);
+        pendingInvalidations.add(id);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+    
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+}
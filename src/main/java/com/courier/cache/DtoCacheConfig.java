@@ -0,0 +1,30 @@
+package com.courier.cache;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+@Configuration
+public class DtoCacheConfig {
+
+    @Value("${courier.cache.maximum-size:10000}")
+    private long maximumSize;
+    
+    @Value("${courier.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    @Bean
+    public DtoCache<ConsignmentDTO> consignmentCache(PlatformTransactionManager transactionManager) {
+        return new DtoCache<>("consignments", maximumSize, Duration.ofSeconds(ttlSeconds), transactionManager);
+    }
+    
+    @Bean
+    public DtoCache<TruckDTO> truckCache(PlatformTransactionManager transactionManager) {
+        return new DtoCache<>("trucks", maximumSize, Duration.ofSeconds(ttlSeconds), transactionManager);
+    }
+}
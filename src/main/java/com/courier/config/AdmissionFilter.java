@@ -0,0 +1,50 @@
+package com.courier.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Caps the requests being processed at once. Requests over the cap wait briefly for a slot
+// and are then answered 503 with Retry-After instead of queuing indefinitely.
+// Async requests (SSE, streaming) release their slot once the handler has started them.
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    
+    public AdmissionFilter(int maxInFlight, long timeoutMillis) {
+        this.permits = new Semaphore(maxInFlight);
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        
+        if (!admitted) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
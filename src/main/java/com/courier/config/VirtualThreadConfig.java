@@ -0,0 +1,75 @@
+package com.courier.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Opt-in (courier.threads.virtual=true, Java 21+): Tomcat runs every request on its own virtual thread,
+// and so do the @Transactional service calls it makes and the async MVC work (streaming, SSE).
+// A thread blocked on JDBC then costs a few hundred bytes instead of a pool slot.
+// The project still builds for Java 17, so the virtual thread API is looked up reflectively.
+@Configuration
+@ConditionalOnProperty(name = "courier.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    
+    @Value("${courier.threads.max-in-flight:400}")
+    private int maxInFlight;
+    
+    @Value("${courier.threads.admission-timeout-ms:2000}")
+    private long admissionTimeoutMillis;
+    
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadExecutor() {
+        log.info("Handling requests on virtual threads");
+        return newVirtualThreadPerTaskExecutor("request-");
+    }
+    
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+    
+    // Replaces Boot's pooled executor for MVC async requests
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+    
+    // Without Tomcat's thread cap nothing bounds concurrency, and a spike would just pile up on the
+    // connection pool until requests time out there; admit a fixed number and shed the rest early
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter() {
+        FilterRegistrationBean<AdmissionFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionFilter(maxInFlight, admissionTimeoutMillis));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+    
+    private static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("courier.threads.virtual=true requires Java 21 or newer", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.courier.controller;
+
+import com.courier.dto.AllocationPlan;
+import com.courier.service.AllocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/allocations")
+@CrossOrigin(origins = "*")
+public class AllocationController {
+
+    @Autowired
+    private AllocationService allocationService;
+    
+    @PostMapping("/auto")
+    public ResponseEntity<AllocationPlan> autoAllocate(
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        
+        if (dryRun) {
+            return ResponseEntity.ok(allocationService.preview());
+        }
+        
+        try {
+            return ResponseEntity.ok(allocationService.allocateAll());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
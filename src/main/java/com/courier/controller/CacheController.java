@@ -0,0 +1,33 @@
+package com.courier.controller;
+
+import com.courier.cache.DtoCache;
+import com.courier.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private List<DtoCache<?>> caches;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getStats() {
+        List<CacheStatsDTO> stats = caches.stream()
+                .map(cache -> {
+                    CacheStats snapshot = cache.stats();
+                    return new CacheStatsDTO(cache.getName(), cache.estimatedSize(), snapshot.hitCount(),
+                            snapshot.missCount(), snapshot.hitRate(), snapshot.evictionCount());
+                })
+                .collect(Collectors.toList());
+        
+        return ResponseEntity.ok(stats);
+    }
+}
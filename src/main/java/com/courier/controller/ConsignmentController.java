@@ -1,12 +1,29 @@
 package com.courier.controller;
 
+import com.courier.dto.BatchResult;
 import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageResponse;
+import com.courier.service.ConsignmentIngestService;
 import com.courier.service.ConsignmentService;
+import com.courier.service.EntityTags;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,22 +34,82 @@ public class ConsignmentController {
     @Autowired
     private ConsignmentService consignmentService;
     
+    @Autowired
+    private ConsignmentIngestService consignmentIngestService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping
-    public ResponseEntity<List<ConsignmentDTO>> getAllConsignments(
-            @RequestParam(required = false) String status) {
+    public ResponseEntity<PageResponse<ConsignmentDTO>> getAllConsignments(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Double minWeightKg,
+            @RequestParam(required = false) Double maxWeightKg,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            WebRequest request) {
+        
+        try {
+            if (ifNoneMatch != null) {
+                // A revalidation is answered from the narrow version query; the tag is taken before the
+                // page is read, so it is never newer than the body it goes out with
+                String etag = consignmentService.getConsignmentPageTag(
+                        status, minWeightKg, maxWeightKg, from, to, cursor, limit);
+                if (request.checkNotModified(etag)) {
+                    return null;
+                }
+                return ResponseEntity.ok(consignmentService.getConsignmentPage(
+                        status, minWeightKg, maxWeightKg, from, to, cursor, limit));
+            }
+            
+            // A plain read tags the page it fetched
+            PageResponse<ConsignmentDTO> page = consignmentService.getConsignmentPage(
+                    status, minWeightKg, maxWeightKg, from, to, cursor, limit);
+            return ResponseEntity.ok().eTag(EntityTags.ofConsignments(page)).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<ConsignmentDTO>> searchConsignments(
+            @RequestParam String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         
-        if (status != null) {
-            return ResponseEntity.ok(consignmentService.getConsignmentsByStatus(status));
+        try {
+            return ResponseEntity.ok(consignmentService.searchConsignments(q, status, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
+    
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamConsignments(
+            @RequestParam(required = false) String status) {
+        
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                consignmentService.streamConsignments(status, generator);
+            }
+        };
         
-        return ResponseEntity.ok(consignmentService.getAllConsignments());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ConsignmentDTO> getConsignmentById(@PathVariable String id) {
+    public ResponseEntity<ConsignmentDTO> getConsignmentById(@PathVariable String id, WebRequest request) {
         ConsignmentDTO consignment = consignmentService.getConsignmentById(id);
         
         if (consignment != null) {
+            // checkNotModified sets the ETag header, or a 304 without a body when If-None-Match matches
+            if (request.checkNotModified(EntityTags.of(consignment))) {
+                return null;
+            }
             return ResponseEntity.ok(consignment);
         }
         
@@ -41,22 +118,73 @@ public class ConsignmentController {
     
     @PostMapping
     public ResponseEntity<ConsignmentDTO> createConsignment(@RequestBody ConsignmentDTO consignmentDTO) {
-        ConsignmentDTO createdConsignment = consignmentService.createConsignment(consignmentDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdConsignment);
+        try {
+            ConsignmentDTO createdConsignment = consignmentService.createConsignment(consignmentDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdConsignment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResult> createConsignments(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(consignmentIngestService.ingestJsonArray(body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResult> createConsignmentsFromNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(consignmentIngestService.ingestNdjson(body));
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<ConsignmentDTO> updateConsignment(
             @PathVariable String id, 
-            @RequestBody ConsignmentDTO consignmentDTO) {
-        
-        ConsignmentDTO updatedConsignment = consignmentService.updateConsignment(id, consignmentDTO);
+            @RequestBody ConsignmentDTO consignmentDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
-        if (updatedConsignment != null) {
-            return ResponseEntity.ok(updatedConsignment);
+        try {
+            ConsignmentDTO updatedConsignment = consignmentService.updateConsignment(id, consignmentDTO, ifMatch);
+            
+            if (updatedConsignment != null) {
+                return ResponseEntity.ok(updatedConsignment);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return lostUpdate(ifMatch);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
+    }
+    
+    // JSON Merge Patch (RFC 7386): absent members are left alone, null clears a field
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ConsignmentDTO> patchConsignment(
+            @PathVariable String id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
-        return ResponseEntity.notFound().build();
+        try {
+            ConsignmentDTO patchedConsignment = consignmentService.patchConsignment(id, patch, ifMatch);
+            
+            if (patchedConsignment != null) {
+                return ResponseEntity.ok(patchedConsignment);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return lostUpdate(ifMatch);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     @DeleteMapping("/{id}")
@@ -83,19 +211,57 @@ public class ConsignmentController {
             }
             
             return ResponseEntity.notFound().build();
-        } catch (IllegalStateException e) {
-            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | ConcurrencyFailureException e) {
+            // Consignment no longer pending, truck taken by another dispatcher, or a lost race
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PostMapping("/{consignmentId}/allocate")
+    public ResponseEntity<ConsignmentDTO> allocateAnyTruck(@PathVariable String consignmentId) {
+        try {
+            ConsignmentDTO updatedConsignment = consignmentService.allocateAnyTruck(consignmentId);
+            
+            if (updatedConsignment != null) {
+                return ResponseEntity.ok(updatedConsignment);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException | ConcurrencyFailureException e) {
+            // Consignment no longer pending, truck taken by another dispatcher, or a lost race
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
     @PostMapping("/{id}/deliver")
     public ResponseEntity<ConsignmentDTO> markAsDelivered(@PathVariable String id) {
-        ConsignmentDTO updatedConsignment = consignmentService.markAsDelivered(id);
-        
-        if (updatedConsignment != null) {
-            return ResponseEntity.ok(updatedConsignment);
+        try {
+            ConsignmentDTO updatedConsignment = consignmentService.markAsDelivered(id);
+            
+            if (updatedConsignment != null) {
+                return ResponseEntity.ok(updatedConsignment);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
-        
-        return ResponseEntity.notFound().build();
+    }
+    
+    // Delivers every listed consignment and frees its truck in one transaction; outcomes per id
+    @PostMapping("/bulk/deliver")
+    public ResponseEntity<BatchResult> deliverAll(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(consignmentService.deliverAll(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    // With If-Match the client asked to write only over the state it saw
+    private static <T> ResponseEntity<T> lostUpdate(String ifMatch) {
+        return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
     }
 }
@@ -0,0 +1,57 @@
+package com.courier.controller;
+
+import com.courier.dto.ChangeEvent;
+import com.courier.dto.EventTicket;
+import com.courier.security.AuthenticatedUser;
+import com.courier.security.JwtService;
+import com.courier.service.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    // Server-Sent Events stream of consignment and truck changes. Browsers resend Last-Event-ID on
+    // reconnect; a "reset" event means the gap could not be replayed and lists should be reloaded.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestParam(required = false) String entity,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String truckId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        
+        Predicate<ChangeEvent> filter = event -> (entity == null || entity.equals(event.getEntity()))
+                && (status == null || status.contains(event.getStatus()))
+                && (truckId == null || truckId.equals(event.getTruckId())
+                        || (ChangeEvent.TRUCK.equals(event.getEntity()) && truckId.equals(event.getId())));
+        
+        return ResponseEntity.ok(changeFeed.subscribe(filter, lastEventId));
+    }
+    
+    // EventSource cannot send an Authorization header: the client fetches a ticket with its token and
+    // opens GET /api/events?ticket=..., fetching a fresh ticket whenever it reconnects
+    @PostMapping("/ticket")
+    public ResponseEntity<EventTicket> issueTicket(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        return ResponseEntity.ok(new EventTicket(jwtService.issueEventTicket(user), jwtService.getEventTicketSeconds()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.courier.controller;
+
+import com.courier.dto.ReportRowDTO;
+import com.courier.dto.RollupRebuildDTO;
+import com.courier.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+    
+    // groupBy is one of day, status, destination, type
+    @GetMapping("/consignments")
+    public ResponseEntity<List<ReportRowDTO>> getConsignmentReport(
+            @RequestParam(defaultValue = "status") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        
+        try {
+            return ResponseEntity.ok(reportService.getConsignmentReport(groupBy, from, to, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Recomputes the rollups from the consignments table, e.g. after bulk SQL changes
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<RollupRebuildDTO> rebuildRollups() {
+        return ResponseEntity.ok(reportService.rebuildRollups());
+    }
+}
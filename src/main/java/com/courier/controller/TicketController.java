@@ -0,0 +1,125 @@
+package com.courier.controller;
+
+import com.courier.dto.PageResponse;
+import com.courier.dto.TicketDTO;
+import com.courier.dto.TicketSummaryDTO;
+import com.courier.security.AuthenticatedUser;
+import com.courier.service.TicketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// /api/tickets/queue/** is limited to staff in SecurityConfig
+@RestController
+@RequestMapping("/api/tickets")
+@CrossOrigin(origins = "*")
+public class TicketController {
+
+    @Autowired
+    private TicketService ticketService;
+    
+    @PostMapping
+    public ResponseEntity<TicketDTO> createTicket(@AuthenticationPrincipal AuthenticatedUser user,
+                                                  @RequestBody TicketDTO ticketDTO) {
+        try {
+            TicketDTO createdTicket = ticketService.createTicket(user.getId(), ticketDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdTicket);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // The caller's own tickets
+    @GetMapping("/inbox")
+    public ResponseEntity<PageResponse<TicketSummaryDTO>> getInbox(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        try {
+            return ResponseEntity.ok(ticketService.getInbox(user.getId(), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<TicketDTO> getTicket(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable String id) {
+        TicketDTO ticket = ticketService.getTicket(id, user.getId(), user.getRole());
+        
+        if (ticket != null) {
+            return ResponseEntity.ok(ticket);
+        }
+        
+        return ResponseEntity.notFound().build();
+    }
+    
+    // Claims the most urgent, oldest open ticket; 204 when the queue is empty
+    @PostMapping("/queue/claim")
+    public ResponseEntity<TicketDTO> claimNextTicket(@AuthenticationPrincipal AuthenticatedUser user,
+                                                     @RequestParam(required = false) String category) {
+        TicketDTO ticket = ticketService.claimNextTicket(user.getId(), category);
+        
+        if (ticket != null) {
+            return ResponseEntity.ok(ticket);
+        }
+        
+        return ResponseEntity.noContent().build();
+    }
+    
+    // Tickets the calling agent has claimed
+    @GetMapping("/queue/assigned")
+    public ResponseEntity<PageResponse<TicketSummaryDTO>> getAssigned(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        try {
+            return ResponseEntity.ok(ticketService.getAssigned(user.getId(), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/queue/{id}/resolve")
+    public ResponseEntity<TicketDTO> resolveTicket(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @PathVariable String id) {
+        try {
+            TicketDTO ticket = ticketService.resolveTicket(id, user.getId());
+            
+            if (ticket != null) {
+                return ResponseEntity.ok(ticket);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PostMapping("/queue/{id}/release")
+    public ResponseEntity<TicketDTO> releaseTicket(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @PathVariable String id) {
+        try {
+            TicketDTO ticket = ticketService.releaseTicket(id, user.getId());
+            
+            if (ticket != null) {
+                return ResponseEntity.ok(ticket);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    // Open and in-progress tickets by priority
+    @GetMapping("/queue/depth")
+    public ResponseEntity<Map<String, Map<String, Long>>> getQueueDepth() {
+        return ResponseEntity.ok(ticketService.getQueueDepth());
+    }
+}
@@ -1,12 +1,26 @@
 package com.courier.controller;
 
+import com.courier.dto.BatchResult;
+import com.courier.dto.PageResponse;
 import com.courier.dto.TruckDTO;
+import com.courier.service.EntityTags;
 import com.courier.service.TruckService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,22 +31,58 @@ public class TruckController {
     @Autowired
     private TruckService truckService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping
-    public ResponseEntity<List<TruckDTO>> getAllTrucks(
-            @RequestParam(required = false) String status) {
+    public ResponseEntity<PageResponse<TruckDTO>> getAllTrucks(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Double minCapacityKg,
+            @RequestParam(required = false) Double maxCapacityKg,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         
-        if (status != null) {
-            return ResponseEntity.ok(truckService.getTrucksByStatus(status));
+        try {
+            // Pages come from the in-memory fleet index, so the tag is taken from the page itself;
+            // a match still skips serialization
+            PageResponse<TruckDTO> page = truckService.getTruckPage(
+                    status, type, location, minCapacityKg, maxCapacityKg, from, to, cursor, limit);
+            if (request.checkNotModified(EntityTags.ofTrucks(page))) {
+                return null;
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
+    
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamTrucks(
+            @RequestParam(required = false) String status) {
         
-        return ResponseEntity.ok(truckService.getAllTrucks());
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                truckService.streamTrucks(status, generator);
+            }
+        };
+        
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<TruckDTO> getTruckById(@PathVariable String id) {
+    public ResponseEntity<TruckDTO> getTruckById(@PathVariable String id, WebRequest request) {
         TruckDTO truck = truckService.getTruckById(id);
         
         if (truck != null) {
+            // checkNotModified sets the ETag header, or a 304 without a body when If-None-Match matches
+            if (request.checkNotModified(EntityTags.of(truck))) {
+                return null;
+            }
             return ResponseEntity.ok(truck);
         }
         
@@ -41,22 +91,59 @@ public class TruckController {
     
     @PostMapping
     public ResponseEntity<TruckDTO> createTruck(@RequestBody TruckDTO truckDTO) {
-        TruckDTO createdTruck = truckService.createTruck(truckDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTruck);
+        try {
+            TruckDTO createdTruck = truckService.createTruck(truckDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdTruck);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<TruckDTO> updateTruck(
             @PathVariable String id, 
-            @RequestBody TruckDTO truckDTO) {
-        
-        TruckDTO updatedTruck = truckService.updateTruck(id, truckDTO);
+            @RequestBody TruckDTO truckDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
-        if (updatedTruck != null) {
-            return ResponseEntity.ok(updatedTruck);
+        try {
+            TruckDTO updatedTruck = truckService.updateTruck(id, truckDTO, ifMatch);
+            
+            if (updatedTruck != null) {
+                return ResponseEntity.ok(updatedTruck);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return lostUpdate(ifMatch);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
+    }
+    
+    // JSON Merge Patch (RFC 7386): absent members are left alone, null clears a field
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TruckDTO> patchTruck(
+            @PathVariable String id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
-        return ResponseEntity.notFound().build();
+        try {
+            TruckDTO patchedTruck = truckService.patchTruck(id, patch, ifMatch);
+            
+            if (patchedTruck != null) {
+                return ResponseEntity.ok(patchedTruck);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return lostUpdate(ifMatch);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     @DeleteMapping("/{id}")
@@ -72,12 +159,33 @@ public class TruckController {
     
     @PostMapping("/{id}/available")
     public ResponseEntity<TruckDTO> markAsAvailable(@PathVariable String id) {
-        TruckDTO updatedTruck = truckService.markAsAvailable(id);
-        
-        if (updatedTruck != null) {
-            return ResponseEntity.ok(updatedTruck);
+        try {
+            TruckDTO updatedTruck = truckService.markAsAvailable(id);
+            
+            if (updatedTruck != null) {
+                return ResponseEntity.ok(updatedTruck);
+            }
+            
+            return ResponseEntity.notFound().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
-        
-        return ResponseEntity.notFound().build();
+    }
+    
+    // Makes every listed truck available and returns its consignments to pending in one transaction
+    @PostMapping("/bulk/available")
+    public ResponseEntity<BatchResult> releaseAll(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(truckService.releaseAll(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    // With If-Match the client asked to write only over the state it saw
+    private static <T> ResponseEntity<T> lostUpdate(String ifMatch) {
+        return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
     }
 }
@@ -0,0 +1,84 @@
+package com.courier.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+// Opt-in (courier.datasource.replica.url set): @Transactional(readOnly = true) work reads from a
+// streaming replica, everything else uses spring.datasource. Without the property Spring Boot's
+// single datasource is used as before.
+@Configuration
+@ConditionalOnProperty(name = "courier.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Value("${courier.datasource.replica.max-lag-ms:1000}")
+    private long maxLagMillis;
+    
+    @Value("${courier.datasource.read-your-writes-ms:5000}")
+    private long readYourWritesMillis;
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    // Credentials default to the primary's
+    @Bean
+    @ConfigurationProperties("courier.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${courier.datasource.replica.url}") String url,
+                                              @Value("${courier.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${courier.datasource.replica.password:${spring.datasource.password}}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+    
+    @Bean
+    public ReplicaHealth replicaHealth(@Qualifier("primaryDataSource") DataSource primary,
+                                       @Qualifier("replicaDataSource") DataSource replica) {
+        return new ReplicaHealth(primary, replica, maxLagMillis);
+    }
+    
+    // What JPA, JdbcTemplate and the transaction manager see
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaHealth replicaHealth) {
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, replicaHealth));
+        // Known up front, so the proxy need not open a connection at startup to find out
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+    
+    // Right after the security filters, which set the user it keys on
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(Duration.ofMillis(readYourWritesMillis)));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package com.courier.datasource;
+
+import java.util.function.Supplier;
+
+// Pins the current thread's connections to the primary regardless of the transaction's read-only flag.
+// Used for reads that must see the latest commit: the caller's own recent writes, cache loads and
+// the in-memory indexes rebuilt right after a commit. Only connections opened inside the scope are
+// affected, so it has to enclose the transaction, or at least its first statement.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY_DEPTH = new ThreadLocal<>();
+    
+    private ReadRouting() {
+    }
+    
+    public static <T> T onPrimary(Supplier<T> work) {
+        enter();
+        try {
+            return work.get();
+        } finally {
+            exit();
+        }
+    }
+    
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get() != null;
+    }
+    
+    static void enter() {
+        Integer depth = PRIMARY_DEPTH.get();
+        PRIMARY_DEPTH.set(depth == null ? 1 : depth + 1);
+    }
+    
+    static void exit() {
+        int depth = PRIMARY_DEPTH.get();
+        if (depth == 1) {
+            PRIMARY_DEPTH.remove();
+        } else {
+            PRIMARY_DEPTH.set(depth - 1);
+        }
+    }
+}
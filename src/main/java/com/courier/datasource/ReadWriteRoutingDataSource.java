@@ -0,0 +1,56 @@
+package com.courier.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Hands read-only transactions a replica connection and everything else a primary one.
+// Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is only set
+// after the transaction manager asks for a connection, and the proxy delays the real
+// getConnection() until the first statement. If the replica cannot be reached the read falls back
+// to the primary instead of failing.
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealth replicaHealth;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth replicaHealth) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaHealth = replicaHealth;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replicaHealth.markDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                replicaHealth.markDown(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+    
+    private boolean useReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadRouting.isPrimaryForced()
+                && replicaHealth.isUsable();
+    }
+}
@@ -0,0 +1,67 @@
+package com.courier.datasource;
+
+import com.courier.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Read-your-writes: once a user has sent a mutating request, their requests stay on the primary for
+// a window longer than the replica may lag, so they never read back an older version of what they
+// just changed. Mutating requests themselves always run on the primary.
+// The window is tracked per instance; a client that switches instances right after a write relies
+// on the replica lag bound alone.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    
+    // User id -> marker, dropped when the window after their last write closes
+    private final Cache<String, Boolean> recentWriters;
+    
+    public ReadYourWritesFilter(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = currentUserId();
+        boolean mutation = !SAFE_METHODS.contains(request.getMethod());
+        if (!mutation && (userId == null || recentWriters.getIfPresent(userId) == null)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        ReadRouting.enter();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.exit();
+            // Counted from when the write finished, not when it started
+            if (mutation && userId != null) {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        }
+    }
+    
+    // Runs after the security filter chain, so the JWT principal is already in place
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package com.courier.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Decides whether read-only transactions may use the replica. A probe measures how far the replica
+// trails the primary; the replica is used only while it answers and trails by at most maxLagMillis.
+// A failed connection attempt between probes also takes it out until the next successful probe.
+// Starts out unusable, so nothing reads from the replica before it has been checked once.
+public class ReplicaHealth implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealth.class);
+    
+    private static final String PRIMARY_LSN_SQL = "SELECT CAST(pg_current_wal_lsn() AS text)";
+    
+    // A replica that has replayed up to the primary's position is current however old its last
+    // replayed commit is (the primary may simply be idle); otherwise its lag is the age of that commit
+    private static final String REPLICA_LAG_SQL = "SELECT pg_is_in_recovery() AS standby, "
+            + "pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn()) AS bytes_behind, "
+            + "EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS replay_age_ms";
+    
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    
+    private volatile boolean usable;
+    private volatile long lagMillis = -1;
+    
+    public ReplicaHealth(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+    }
+    
+    public boolean isUsable() {
+        return usable;
+    }
+    
+    // -1 while the replica is unreachable
+    public long getLagMillis() {
+        return lagMillis;
+    }
+    
+    @Scheduled(fixedDelayString = "${courier.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        long lag;
+        try {
+            String primaryLsn = primary.queryForObject(PRIMARY_LSN_SQL, String.class);
+            lag = lagOf(replica.queryForMap(REPLICA_LAG_SQL, primaryLsn));
+        } catch (DataAccessException e) {
+            markDown(e);
+            return;
+        }
+        
+        boolean nowUsable = lag >= 0 && lag <= maxLagMillis;
+        if (nowUsable != usable) {
+            log.info("Replica {} (lag {} ms)", nowUsable ? "in use" : "lagging, reads go to the primary", lag);
+        }
+        lagMillis = lag;
+        usable = nowUsable;
+    }
+    
+    public void markDown(Exception cause) {
+        if (usable) {
+            log.warn("Replica unavailable, reads go to the primary: {}", cause.getMessage());
+        }
+        usable = false;
+        lagMillis = -1;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("courier.datasource.replica.lag", this, ReplicaHealth::getLagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("courier.datasource.replica.usable", this, health -> health.isUsable() ? 1 : 0)
+                .register(registry);
+    }
+    
+    // -1 when the lag cannot be told
+    private static long lagOf(Map<String, Object> row) {
+        if (!Boolean.TRUE.equals(row.get("standby"))) {
+            // Not a standby (e.g. the replica URL points at the primary itself): nothing to trail
+            return 0;
+        }
+        Number bytesBehind = (Number) row.get("bytes_behind");
+        if (bytesBehind != null && bytesBehind.doubleValue() <= 0) {
+            return 0;
+        }
+        Number replayAge = (Number) row.get("replay_age_ms");
+        return replayAge != null ? Math.max(0, replayAge.longValue()) : -1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.courier.dto;
+
+public class AllocationAssignment {
+    private String consignmentId;
+    private String truckId;
+    private double score;
+    
+    public AllocationAssignment() {
+    }
+    
+    public AllocationAssignment(String consignmentId, String truckId, double score) {
+        this.consignmentId = consignmentId;
+        this.truckId = truckId;
+        this.score = score;
+    }
+    
+    // Getters and Setters
+    public String getConsignmentId() {
+        return consignmentId;
+    }
+    
+    public void setConsignmentId(String consignmentId) {
+        this.consignmentId = consignmentId;
+    }
+    
+    public String getTruckId() {
+        return truckId;
+    }
+    
+    public void setTruckId(String truckId) {
+        this.truckId = truckId;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,62 @@
+package com.courier.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AllocationPlan {
+    private boolean dryRun;
+    private int pendingConsignments;
+    private int availableTrucks;
+    private List<AllocationAssignment> assignments = new ArrayList<>();
+    private List<String> unassignedConsignmentIds = new ArrayList<>();
+    private long solveMillis;
+    
+    // Getters and Setters
+    public boolean isDryRun() {
+        return dryRun;
+    }
+    
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+    
+    public int getPendingConsignments() {
+        return pendingConsignments;
+    }
+    
+    public void setPendingConsignments(int pendingConsignments) {
+        this.pendingConsignments = pendingConsignments;
+    }
+    
+    public int getAvailableTrucks() {
+        return availableTrucks;
+    }
+    
+    public void setAvailableTrucks(int availableTrucks) {
+        this.availableTrucks = availableTrucks;
+    }
+    
+    public List<AllocationAssignment> getAssignments() {
+        return assignments;
+    }
+    
+    public void setAssignments(List<AllocationAssignment> assignments) {
+        this.assignments = assignments;
+    }
+    
+    public List<String> getUnassignedConsignmentIds() {
+        return unassignedConsignmentIds;
+    }
+    
+    public void setUnassignedConsignmentIds(List<String> unassignedConsignmentIds) {
+        this.unassignedConsignmentIds = unassignedConsignmentIds;
+    }
+    
+    public long getSolveMillis() {
+        return solveMillis;
+    }
+    
+    public void setSolveMillis(long solveMillis) {
+        this.solveMillis = solveMillis;
+    }
+}
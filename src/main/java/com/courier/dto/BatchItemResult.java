@@ -0,0 +1,51 @@
+package com.courier.dto;
+
+public class BatchItemResult {
+    private Integer index;
+    private String id;
+    private String outcome;
+    private String error;
+    
+    public BatchItemResult() {
+    }
+    
+    public BatchItemResult(Integer index, String id, String outcome, String error) {
+        this.index = index;
+        this.id = id;
+        this.outcome = outcome;
+        this.error = error;
+    }
+    
+    // Getters and Setters
+    public Integer getIndex() {
+        return index;
+    }
+    
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getOutcome() {
+        return outcome;
+    }
+    
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
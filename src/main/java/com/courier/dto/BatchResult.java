@@ -0,0 +1,55 @@
+package com.courier.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class BatchResult {
+    // Items without an index keep their place at the end
+    private static final Comparator<BatchItemResult> INPUT_ORDER = Comparator.comparing(
+            BatchItemResult::getIndex, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult> items = new ArrayList<>();
+    
+    public void addSuccess(Integer index, String id, String outcome) {
+        items.add(new BatchItemResult(index, id, outcome, null));
+        succeeded++;
+    }
+    
+    public void addFailure(Integer index, String id, String outcome, String error) {
+        items.add(new BatchItemResult(index, id, outcome, error));
+        failed++;
+    }
+    
+    // For producers that record items out of input order, once the result is complete
+    public void sortByIndex() {
+        items.sort(INPUT_ORDER);
+    }
+    
+    // Getters and Setters
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<BatchItemResult> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,89 @@
+package com.courier.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Compact delta pushed to /api/events subscribers; clients patch their cached row instead of refetching
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+    public static final String CONSIGNMENT = "consignment";
+    public static final String TRUCK = "truck";
+    
+    private String entity;
+    private String action;
+    private String id;
+    private String status;
+    private String truckId;
+    private LocalDateTime at;
+    
+    public ChangeEvent() {
+    }
+    
+    public ChangeEvent(String entity, String action, String id, String status, String truckId) {
+        this.entity = entity;
+        this.action = action;
+        this.id = id;
+        this.status = status;
+        this.truckId = truckId;
+        this.at = LocalDateTime.now();
+    }
+    
+    // truckId is the truck the change involves; for a delivery it is the truck that was released
+    public static ChangeEvent consignment(String action, String id, String status, String truckId) {
+        return new ChangeEvent(CONSIGNMENT, action, id, status, truckId);
+    }
+    
+    public static ChangeEvent truck(String action, String id, String status) {
+        return new ChangeEvent(TRUCK, action, id, status, null);
+    }
+    
+    // Getters and Setters
+    public String getEntity() {
+        return entity;
+    }
+    
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+    
+    public String getAction() {
+        return action;
+    }
+    
+    public void setAction(String action) {
+        this.action = action;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getTruckId() {
+        return truckId;
+    }
+    
+    public void setTruckId(String truckId) {
+        this.truckId = truckId;
+    }
+    
+    public LocalDateTime getAt() {
+        return at;
+    }
+    
+    public void setAt(LocalDateTime at) {
+        this.at = at;
+    }
+}
@@ -1,5 +1,9 @@
 package com.courier.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public class ConsignmentDTO {
@@ -7,15 +11,47 @@ public class ConsignmentDTO {
     private String customer;
     private String type;
     private String weight;
+    private Double weightKg;
     private String destination;
     private String status;
-    private String date;
+    
+    // Serialized in the "MMM dd, yyyy" form the API has always used
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MMM dd, yyyy", locale = "en")
+    private LocalDate date;
+    
     private String truckId;
     private String contact;
     private String email;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Carried for the ETag only; not part of the representation
+    @JsonIgnore
+    private Long version;
+    
+    public ConsignmentDTO() {
+    }
+    
+    // Used by JPQL constructor expressions so list reads skip entity hydration
+    public ConsignmentDTO(String id, String customer, String type, String weight, Double weightKg,
+                          String destination, String status, LocalDate date, String truckId, String contact,
+                          String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.customer = customer;
+        this.type = type;
+        this.weight = weight;
+        this.weightKg = weightKg;
+        this.destination = destination;
+        this.status = status;
+        this.date = date;
+        this.truckId = truckId;
+        this.contact = contact;
+        this.email = email;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+    
     // Getters and Setters
     public String getId() {
         return id;
@@ -49,6 +85,14 @@ public class ConsignmentDTO {
         this.weight = weight;
     }
     
+    public Double getWeightKg() {
+        return weightKg;
+    }
+    
+    public void setWeightKg(Double weightKg) {
+        this.weightKg = weightKg;
+    }
+    
     public String getDestination() {
         return destination;
     }
@@ -65,11 +109,11 @@ public class ConsignmentDTO {
         this.status = status;
     }
     
-    public String getDate() {
+    public LocalDate getDate() {
         return date;
     }
     
-    public void setDate(String date) {
+    public void setDate(LocalDate date) {
         this.date = date;
     }
     
@@ -112,4 +156,12 @@ public class ConsignmentDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,31 @@
+package com.courier.dto;
+
+public class EventTicket {
+    private String ticket;
+    private long expiresInSeconds;
+    
+    public EventTicket() {
+    }
+    
+    public EventTicket(String ticket, long expiresInSeconds) {
+        this.ticket = ticket;
+        this.expiresInSeconds = expiresInSeconds;
+    }
+    
+    // Getters and Setters
+    public String getTicket() {
+        return ticket;
+    }
+    
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+    
+    public long getExpiresInSeconds() {
+        return expiresInSeconds;
+    }
+    
+    public void setExpiresInSeconds(long expiresInSeconds) {
+        this.expiresInSeconds = expiresInSeconds;
+    }
+}
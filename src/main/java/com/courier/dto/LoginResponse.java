@@ -0,0 +1,73 @@
+package com.courier.dto;
+
+import java.time.Instant;
+
+public class LoginResponse {
+    private String token;
+    private Instant expiresAt;
+    private String userId;
+    private String email;
+    private String fullName;
+    private String role;
+    
+    public LoginResponse() {
+    }
+    
+    public LoginResponse(String token, Instant expiresAt, String userId, String email, String fullName, String role) {
+        this.token = token;
+        this.expiresAt = expiresAt;
+        this.userId = userId;
+        this.email = email;
+        this.fullName = fullName;
+        this.role = role;
+    }
+    
+    // Getters and Setters
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
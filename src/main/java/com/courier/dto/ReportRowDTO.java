@@ -0,0 +1,41 @@
+package com.courier.dto;
+
+public class ReportRowDTO {
+    private String key;
+    private long consignments;
+    private double weightKg;
+    
+    public ReportRowDTO() {
+    }
+    
+    public ReportRowDTO(String key, long consignments, double weightKg) {
+        this.key = key;
+        this.consignments = consignments;
+        this.weightKg = weightKg;
+    }
+    
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public long getConsignments() {
+        return consignments;
+    }
+    
+    public void setConsignments(long consignments) {
+        this.consignments = consignments;
+    }
+    
+    public double getWeightKg() {
+        return weightKg;
+    }
+    
+    public void setWeightKg(double weightKg) {
+        this.weightKg = weightKg;
+    }
+}
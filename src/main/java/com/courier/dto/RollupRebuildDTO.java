@@ -0,0 +1,31 @@
+package com.courier.dto;
+
+public class RollupRebuildDTO {
+    private int rows;
+    private long millis;
+    
+    public RollupRebuildDTO() {
+    }
+    
+    public RollupRebuildDTO(int rows, long millis) {
+        this.rows = rows;
+        this.millis = millis;
+    }
+    
+    // Getters and Setters
+    public int getRows() {
+        return rows;
+    }
+    
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+    
+    public long getMillis() {
+        return millis;
+    }
+    
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+}
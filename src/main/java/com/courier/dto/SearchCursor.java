@@ -0,0 +1,45 @@
+package com.courier.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position in a ranked search: the (score, id) of the last row on the previous page.
+// The score is the database's float4 value and round-trips exactly through its decimal form.
+public final class SearchCursor {
+
+    private static final char SEPARATOR = '|';
+    
+    private final float score;
+    private final String id;
+    
+    public SearchCursor(float score, String id) {
+        this.score = score;
+        this.id = id;
+    }
+    
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new SearchCursor(Float.parseFloat(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+    
+    public String encode() {
+        String raw = Float.toString(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public float getScore() {
+        return score;
+    }
+    
+    public String getId() {
+        return id;
+    }
+}
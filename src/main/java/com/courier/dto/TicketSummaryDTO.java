@@ -0,0 +1,86 @@
+package com.courier.dto;
+
+import java.time.LocalDateTime;
+
+// Inbox row; every column is carried by the inbox indexes so a page is an index-only scan
+public class TicketSummaryDTO {
+    private String id;
+    private String subject;
+    private String category;
+    private String priority;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public TicketSummaryDTO() {
+    }
+    
+    // Used by JPQL constructor expressions
+    public TicketSummaryDTO(String id, String subject, String category, String priority, String status,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.subject = subject;
+        this.category = category;
+        this.priority = priority;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
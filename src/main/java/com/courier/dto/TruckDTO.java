@@ -1,5 +1,9 @@
 package com.courier.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public class TruckDTO {
@@ -7,13 +11,43 @@ public class TruckDTO {
     private String driver;
     private String type;
     private String capacity;
+    private Double capacityKg;
     private String location;
     private String status;
-    private String lastMaintenance;
+    
+    // Serialized in the "MMM dd, yyyy" form the API has always used
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MMM dd, yyyy", locale = "en")
+    private LocalDate lastMaintenance;
+    
     private String assignedConsignmentId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Carried for the ETag only; not part of the representation
+    @JsonIgnore
+    private Long version;
+    
+    public TruckDTO() {
+    }
+    
+    // Used by JPQL constructor expressions so list reads skip entity hydration
+    public TruckDTO(String id, String driver, String type, String capacity, Double capacityKg,
+                    String location, String status, LocalDate lastMaintenance, String assignedConsignmentId,
+                    LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.driver = driver;
+        this.type = type;
+        this.capacity = capacity;
+        this.capacityKg = capacityKg;
+        this.location = location;
+        this.status = status;
+        this.lastMaintenance = lastMaintenance;
+        this.assignedConsignmentId = assignedConsignmentId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+    
     // Getters and Setters
     public String getId() {
         return id;
@@ -47,6 +81,14 @@ public class TruckDTO {
         this.capacity = capacity;
     }
     
+    public Double getCapacityKg() {
+        return capacityKg;
+    }
+    
+    public void setCapacityKg(Double capacityKg) {
+        this.capacityKg = capacityKg;
+    }
+    
     public String getLocation() {
         return location;
     }
@@ -63,11 +105,11 @@ public class TruckDTO {
         this.status = status;
     }
     
-    public String getLastMaintenance() {
+    public LocalDate getLastMaintenance() {
         return lastMaintenance;
     }
     
-    public void setLastMaintenance(String lastMaintenance) {
+    public void setLastMaintenance(LocalDate lastMaintenance) {
         this.lastMaintenance = lastMaintenance;
     }
     
@@ -94,4 +136,12 @@ public class TruckDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
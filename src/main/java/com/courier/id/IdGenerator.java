@@ -0,0 +1,5 @@
+package com.courier.id;
+
+public interface IdGenerator {
+    String nextId();
+}
@@ -0,0 +1,49 @@
+package com.courier.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    public static final String CONSIGNMENT_ID_GENERATOR = "consignmentIdGenerator";
+    public static final String TRUCK_ID_GENERATOR = "truckIdGenerator";
+    public static final String TICKET_ID_GENERATOR = "ticketIdGenerator";
+    
+    @Value("${courier.id.strategy:sequence}")
+    private String strategy;
+    
+    @Value("${courier.id.block-size:100}")
+    private int blockSize;
+    
+    @Value("${courier.id.node-id:0}")
+    private long nodeId;
+    
+    @Bean(name = CONSIGNMENT_ID_GENERATOR)
+    public IdGenerator consignmentIdGenerator(JdbcTemplate jdbcTemplate) {
+        return create(jdbcTemplate, "CCM", "consignment_id_seq");
+    }
+    
+    @Bean(name = TRUCK_ID_GENERATOR)
+    public IdGenerator truckIdGenerator(JdbcTemplate jdbcTemplate) {
+        return create(jdbcTemplate, "TRK-", "truck_id_seq");
+    }
+    
+    @Bean(name = TICKET_ID_GENERATOR)
+    public IdGenerator ticketIdGenerator(JdbcTemplate jdbcTemplate) {
+        return create(jdbcTemplate, "TKT-", "ticket_id_seq");
+    }
+    
+    private IdGenerator create(JdbcTemplate jdbcTemplate, String prefix, String sequenceName) {
+        switch (strategy) {
+            case "sequence":
+                return new PooledSequenceIdGenerator(jdbcTemplate, prefix, sequenceName, blockSize);
+            case "time":
+                return new TimeOrderedIdGenerator(prefix, nodeId);
+            default:
+                throw new IllegalStateException("Unknown id strategy: " + strategy);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.courier.id;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Reserves a block of ids with one nextval() and hands them out locally.
+// The sequence must be created with INCREMENT BY equal to the block size,
+// so every node owns a disjoint range without further coordination.
+public class PooledSequenceIdGenerator implements IdGenerator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+    private final String nextBlockSql;
+    private final int blockSize;
+    
+    // Not synchronized: a monitor held across the nextval() round trip would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private long next;
+    private long limit;
+    
+    public PooledSequenceIdGenerator(JdbcTemplate jdbcTemplate, String prefix, String sequenceName, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = prefix;
+        this.nextBlockSql = "SELECT nextval('" + sequenceName + "')";
+        this.blockSize = blockSize;
+    }
+    
+    @Override
+    public String nextId() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                Long start = jdbcTemplate.queryForObject(nextBlockSql, Long.class);
+                if (start == null) {
+                    throw new IllegalStateException("Sequence returned no value");
+                }
+                next = start;
+                limit = start + blockSize;
+            }
+            return prefix + next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
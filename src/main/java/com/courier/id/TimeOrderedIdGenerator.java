@@ -0,0 +1,50 @@
+package com.courier.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style ids: 41 bits of milliseconds since 2023-01-01, 10 bits of node id
+// and 12 bits of per-millisecond sequence. Needs no database round trip at all.
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final long EPOCH_MILLIS = 1672531200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private final String prefix;
+    private final long nodeId;
+    
+    // Last issued (timestamp << SEQUENCE_BITS | sequence); only ever moves forward
+    private final AtomicLong lastState = new AtomicLong();
+    
+    public TimeOrderedIdGenerator(String prefix, long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.prefix = prefix;
+        this.nodeId = nodeId;
+    }
+    
+    @Override
+    public String nextId() {
+        long state;
+        while (true) {
+            long previous = lastState.get();
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            
+            // Within the same millisecond (or if the clock stepped back) bump the sequence;
+            // an exhausted sequence carries into the next millisecond
+            state = now > previous ? now : previous + 1;
+            if (lastState.compareAndSet(previous, state)) {
+                break;
+            }
+        }
+        
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+        long id = (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        
+        return prefix + id;
+    }
+}
@@ -0,0 +1,50 @@
+package com.courier.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// courier.allocations{mode, outcome}: success, conflict (lost a concurrent race after all retries,
+// a truck another dispatcher claimed first, or an auto-allocation pair whose rows moved since the
+// plan was read) and failure (not found, not pending, no free truck)
+@Component
+public class AllocationMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String CONFLICT = "conflict";
+    public static final String FAILURE = "failure";
+    
+    private final MeterRegistry registry;
+    
+    public AllocationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    // A null result means the consignment or truck was not found
+    public <T> T record(String mode, Supplier<T> allocation) {
+        try {
+            T result = allocation.get();
+            count(mode, result != null ? SUCCESS : FAILURE, 1);
+            return result;
+        } catch (ConcurrencyFailureException e) {
+            count(mode, CONFLICT, 1);
+            throw e;
+        } catch (RuntimeException e) {
+            count(mode, FAILURE, 1);
+            throw e;
+        }
+    }
+    
+    public void count(String mode, String outcome, int amount) {
+        if (amount > 0) {
+            Counter.builder("courier.allocations")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .increment(amount);
+        }
+    }
+}
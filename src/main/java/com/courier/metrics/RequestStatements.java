@@ -0,0 +1,41 @@
+package com.courier.metrics;
+
+// JDBC statement count and execution time of the request on the current thread.
+// Opened and closed by StatementMetricsFilter, fed by StatementCountingListener.
+public final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+    
+    private int count;
+    private long nanos;
+    
+    private RequestStatements() {
+    }
+    
+    static RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+    
+    static void end() {
+        CURRENT.remove();
+    }
+    
+    // No-op outside a request (startup, scheduled jobs, sender threads)
+    static void record(long elapsedNanos) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.count++;
+            statements.nanos += elapsedNanos;
+        }
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public long getNanos() {
+        return nanos;
+    }
+}
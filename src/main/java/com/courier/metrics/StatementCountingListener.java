@@ -0,0 +1,32 @@
+package com.courier.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Attached to every Hibernate session through hibernate.session.events.auto.
+// Hibernate creates it reflectively per session, so it reports through the thread-bound RequestStatements.
+// Statements issued through JdbcTemplate (batch ingest) bypass the session and are not counted.
+public class StatementCountingListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatements.record(System.nanoTime() - statementStart);
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatements.record(System.nanoTime() - batchStart);
+    }
+}
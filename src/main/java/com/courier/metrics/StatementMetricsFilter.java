@@ -0,0 +1,53 @@
+package com.courier.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Records how many statements each endpoint issues and how long they take, tagged like
+// http.server.requests so an N+1 or a slow query shows up against the route that caused it
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    
+    public StatementMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatements statements = RequestStatements.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatements.end();
+            
+            // Only requests that reached a handler; unmatched paths would each add a new series
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                String uri = pattern.toString();
+                DistributionSummary.builder("courier.db.statements")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(registry)
+                        .record(statements.getCount());
+                Timer.builder("courier.db.time")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(registry)
+                        .record(statements.getNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.courier.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+// UPDATE statements list only the changed columns
+@DynamicUpdate
 @Table(name = "consignments")
-public class Consignment {
+public class Consignment implements Persistable<String> {
     
     @Id
     private String id;
@@ -18,23 +28,47 @@ public class Consignment {
     private String customer;
     private String type;
     private String weight;
+    
+    // Normalized from weight on write; backs range filters and allocation
+    @Column(name = "weight_kg")
+    private Double weightKg;
+    
     private String destination;
     private String status;
-    private String date;
+    private LocalDate date;
     private String contact;
     private String email;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "truck_id")
     private Truck truck;
     
+    @Version
+    private Long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Ids are assigned up front, so track newness explicitly to let save() persist without a merge SELECT
+    @Transient
+    private boolean isNew = true;
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
     // Getters and Setters
+    @Override
     public String getId() {
         return id;
     }
@@ -67,6 +101,14 @@ public class Consignment {
         this.weight = weight;
     }
     
+    public Double getWeightKg() {
+        return weightKg;
+    }
+    
+    public void setWeightKg(Double weightKg) {
+        this.weightKg = weightKg;
+    }
+    
     public String getDestination() {
         return destination;
     }
@@ -83,11 +125,11 @@ public class Consignment {
         this.status = status;
     }
     
-    public String getDate() {
+    public LocalDate getDate() {
         return date;
     }
     
-    public void setDate(String date) {
+    public void setDate(LocalDate date) {
         this.date = date;
     }
     
@@ -115,6 +157,14 @@ public class Consignment {
         this.truck = truck;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,159 @@
+package com.courier.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+
+// Consignment count and weight per day, status, destination and type. Maintained incrementally
+// by DailyRollups; the day is the consignment date, falling back to the creation date.
+// Missing dimensions are stored as "" because they are part of the primary key.
+@Entity
+@Table(name = "consignment_daily_rollups")
+@IdClass(ConsignmentDailyRollup.Key.class)
+public class ConsignmentDailyRollup {
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+    
+    @Id
+    private String status;
+    
+    @Id
+    private String destination;
+    
+    @Id
+    private String type;
+    
+    @Column(name = "consignment_count", nullable = false)
+    private long consignmentCount;
+    
+    @Column(name = "weight_kg", nullable = false)
+    private double weightKg;
+    
+    public ConsignmentDailyRollup() {
+    }
+    
+    public ConsignmentDailyRollup(Key key) {
+        this.rollupDate = key.rollupDate;
+        this.status = key.status;
+        this.destination = key.destination;
+        this.type = key.type;
+    }
+    
+    // Getters and Setters
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+    
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public long getConsignmentCount() {
+        return consignmentCount;
+    }
+    
+    public void setConsignmentCount(long consignmentCount) {
+        this.consignmentCount = consignmentCount;
+    }
+    
+    public double getWeightKg() {
+        return weightKg;
+    }
+    
+    public void setWeightKg(double weightKg) {
+        this.weightKg = weightKg;
+    }
+    
+    // Ordered so concurrent writers upsert shared rows in the same order and cannot deadlock
+    public static class Key implements Serializable, Comparable<Key> {
+        
+        private static final Comparator<Key> ORDER = Comparator
+                .comparing((Key key) -> key.rollupDate)
+                .thenComparing(key -> key.status)
+                .thenComparing(key -> key.destination)
+                .thenComparing(key -> key.type);
+        
+        private LocalDate rollupDate;
+        private String status;
+        private String destination;
+        private String type;
+        
+        public Key() {
+        }
+        
+        public Key(LocalDate rollupDate, String status, String destination, String type) {
+            this.rollupDate = rollupDate;
+            this.status = status != null ? status : "";
+            this.destination = destination != null ? destination : "";
+            this.type = type != null ? type : "";
+        }
+        
+        public static Key of(Consignment consignment) {
+            LocalDate day = consignment.getDate() != null
+                    ? consignment.getDate()
+                    : consignment.getCreatedAt().toLocalDate();
+            return new Key(day, consignment.getStatus(), consignment.getDestination(), consignment.getType());
+        }
+        
+        public Key withStatus(String status) {
+            return new Key(rollupDate, status, destination, type);
+        }
+        
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(rollupDate, key.rollupDate)
+                    && Objects.equals(status, key.status)
+                    && Objects.equals(destination, key.destination)
+                    && Objects.equals(type, key.type);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(rollupDate, status, destination, type);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.courier.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+// A customer notification waiting to be sent, written in the same transaction as the change it reports.
+// Rows of one consignment (aggregate) are sent in id order; see OutboxDispatcher.
+@Entity
+@Table(name = "notification_outbox")
+public class OutboxMessage {
+
+    public static final String PENDING = "pending";
+    public static final String SENT = "sent";
+    // Gave up after the maximum number of attempts
+    public static final String DEAD = "dead";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+    
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    
+    // Notification serialized as JSON
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    
+    @Column(nullable = false)
+    private String status;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    // Not claimable before this time: set to the lease end when claimed and to the retry time on failure
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getAggregateId() {
+        return aggregateId;
+    }
+    
+    public void setAggregateId(String aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+    
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.courier.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id")
+    private String tokenId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    
+    // Getters and Setters
+    public String getTokenId() {
+        return tokenId;
+    }
+    
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -21,6 +21,17 @@ public class SupportTicket {
     private String priority;
     private String status;
     
+    // Queue order derived from priority: 0 is the most urgent
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+    
+    // Id of the agent who claimed the ticket
+    @Column(name = "assigned_to")
+    private String assignedTo;
+    
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
@@ -84,6 +95,30 @@ public class SupportTicket {
         this.status = status;
     }
     
+    public Integer getPriorityRank() {
+        return priorityRank;
+    }
+    
+    public void setPriorityRank(Integer priorityRank) {
+        this.priorityRank = priorityRank;
+    }
+    
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+    
+    public void setAssignedTo(String assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+    
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+    
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+    
     public User getUser() {
         return user;
     }
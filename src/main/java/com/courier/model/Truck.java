@@ -2,14 +2,22 @@ package com.courier.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+// UPDATE statements list only the changed columns
+@DynamicUpdate
 @Table(name = "trucks")
-public class Truck {
+public class Truck implements Persistable<String> {
     
     @Id
     private String id;
@@ -17,14 +25,19 @@ public class Truck {
     private String driver;
     private String type;
     private String capacity;
+    
+    // Normalized from capacity on write; backs range filters and allocation
+    @Column(name = "capacity_kg")
+    private Double capacityKg;
+    
     private String location;
     private String status;
     
     @Column(name = "last_maintenance")
-    private String lastMaintenance;
+    private LocalDate lastMaintenance;
     
-    @OneToOne(mappedBy = "truck")
-    private Consignment assignedConsignment;
+    @Version
+    private Long version;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -32,7 +45,23 @@ public class Truck {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Ids are assigned up front, so track newness explicitly to let save() persist without a merge SELECT
+    @Transient
+    private boolean isNew = true;
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
     // Getters and Setters
+    @Override
     public String getId() {
         return id;
     }
@@ -65,6 +94,14 @@ public class Truck {
         this.capacity = capacity;
     }
     
+    public Double getCapacityKg() {
+        return capacityKg;
+    }
+    
+    public void setCapacityKg(Double capacityKg) {
+        this.capacityKg = capacityKg;
+    }
+    
     public String getLocation() {
         return location;
     }
@@ -81,20 +118,20 @@ public class Truck {
         this.status = status;
     }
     
-    public String getLastMaintenance() {
+    public LocalDate getLastMaintenance() {
         return lastMaintenance;
     }
     
-    public void setLastMaintenance(String lastMaintenance) {
+    public void setLastMaintenance(LocalDate lastMaintenance) {
         this.lastMaintenance = lastMaintenance;
     }
     
-    public Consignment getAssignedConsignment() {
-        return assignedConsignment;
+    public Long getVersion() {
+        return version;
     }
     
-    public void setAssignedConsignment(Consignment assignedConsignment) {
-        this.assignedConsignment = assignedConsignment;
+    public void setVersion(Long version) {
+        this.version = version;
     }
     
     public LocalDateTime getCreatedAt() {
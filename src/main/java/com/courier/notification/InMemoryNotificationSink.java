@@ -0,0 +1,54 @@
+package com.courier.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Local stand-in for a real channel: logs each notification and keeps the most recent ones
+// so tests and local runs can see what would have been sent
+@Component
+@ConditionalOnProperty(name = "courier.notifications.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryNotificationSink implements NotificationSink {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryNotificationSink.class);
+    
+    private final int capacity;
+    private final Deque<Notification> sent = new ArrayDeque<>();
+    
+    public InMemoryNotificationSink(@Value("${courier.notifications.memory.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+    
+    @Override
+    public void send(Notification notification) {
+        log.info("Notification {} for consignment {}: {} to {}", notification.getMessageId(),
+                notification.getConsignmentId(), notification.getEvent(),
+                notification.getEmail() != null ? notification.getEmail() : notification.getContact());
+        synchronized (sent) {
+            if (sent.size() == capacity) {
+                sent.removeFirst();
+            }
+            sent.addLast(notification);
+        }
+    }
+    
+    // Oldest first
+    public List<Notification> getSent() {
+        synchronized (sent) {
+            return new ArrayList<>(sent);
+        }
+    }
+    
+    public void clear() {
+        synchronized (sent) {
+            sent.clear();
+        }
+    }
+}
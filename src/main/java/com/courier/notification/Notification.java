@@ -0,0 +1,97 @@
+package com.courier.notification;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// What a customer is told about a consignment; stored as the outbox payload.
+// messageId is the outbox row id, set on dispatch; a message can be delivered more than once
+// (a lease may expire mid-send), so sinks use it to drop duplicates.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Notification {
+    public static final String ALLOCATED = "allocated";
+    public static final String DELIVERED = "delivered";
+    
+    private Long messageId;
+    private String event;
+    private String consignmentId;
+    private String customer;
+    private String email;
+    private String contact;
+    private String destination;
+    private String truckId;
+    private LocalDateTime occurredAt;
+    
+    // Getters and Setters
+    public Long getMessageId() {
+        return messageId;
+    }
+    
+    public void setMessageId(Long messageId) {
+        this.messageId = messageId;
+    }
+    
+    public String getEvent() {
+        return event;
+    }
+    
+    public void setEvent(String event) {
+        this.event = event;
+    }
+    
+    public String getConsignmentId() {
+        return consignmentId;
+    }
+    
+    public void setConsignmentId(String consignmentId) {
+        this.consignmentId = consignmentId;
+    }
+    
+    public String getCustomer() {
+        return customer;
+    }
+    
+    public void setCustomer(String customer) {
+        this.customer = customer;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getContact() {
+        return contact;
+    }
+    
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public String getTruckId() {
+        return truckId;
+    }
+    
+    public void setTruckId(String truckId) {
+        this.truckId = truckId;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.courier.notification;
+
+import com.courier.model.Consignment;
+import com.courier.model.OutboxMessage;
+import com.courier.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records customer notifications in notification_outbox as part of the caller's transaction:
+// a notification exists exactly when the change it reports commits. Messages are collected per
+// transaction and inserted as one batch just before commit; sending happens later in OutboxDispatcher,
+// so the request never waits for the mail relay.
+@Component
+public class NotificationOutbox {
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Consignments without an email or contact have nobody to notify
+    public void consignmentEvent(String event, Consignment consignment, String truckId) {
+        if (consignment.getEmail() == null && consignment.getContact() == null) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Notification notification = new Notification();
+        notification.setEvent(event);
+        notification.setConsignmentId(consignment.getId());
+        notification.setCustomer(consignment.getCustomer());
+        notification.setEmail(consignment.getEmail());
+        notification.setContact(consignment.getContact());
+        notification.setDestination(consignment.getDestination());
+        notification.setTruckId(truckId);
+        notification.setOccurredAt(now);
+        
+        OutboxMessage message = new OutboxMessage();
+        message.setAggregateId(consignment.getId());
+        message.setEventType(event);
+        message.setPayload(serialize(notification));
+        message.setAvailableAt(now);
+        message.setCreatedAt(now);
+        add(message);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void add(OutboxMessage message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.insertAll(List.of(message));
+            return;
+        }
+        
+        List<OutboxMessage> pending = (List<OutboxMessage>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OutboxMessage> messages = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, messages);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Kept in call order so ids follow the order of the changes
+                    outboxRepository.insertAll(messages);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NotificationOutbox.this);
+                }
+            });
+            pending = messages;
+        }
+        pending.add(message);
+    }
+    
+    private String serialize(Notification notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification", e);
+        }
+    }
+}
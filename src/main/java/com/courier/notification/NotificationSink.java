@@ -0,0 +1,7 @@
+package com.courier.notification;
+
+// Delivers one notification to the customer; throwing schedules a retry.
+// Called from the outbox dispatcher threads, never inside a request or database transaction.
+public interface NotificationSink {
+    void send(Notification notification) throws Exception;
+}
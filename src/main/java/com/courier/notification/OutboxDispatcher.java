@@ -0,0 +1,163 @@
+package com.courier.notification;
+
+import com.courier.model.OutboxMessage;
+import com.courier.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Drains notification_outbox into the NotificationSink. Each round leases a batch (see
+// OutboxMessageRepositoryImpl.claimBatch), sends it on a small pool with no transaction or
+// connection held, then marks the results. Failures are retried with exponential backoff until
+// max-attempts, after which the message is parked as dead. Delivery is at least once.
+@Component
+@ConditionalOnProperty(name = "courier.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private NotificationSink sink;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${courier.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${courier.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+    
+    @Value("${courier.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${courier.outbox.retry-base-ms:1000}")
+    private long retryBaseMillis;
+    
+    @Value("${courier.outbox.retry-max-ms:600000}")
+    private long retryMaxMillis;
+    
+    @Value("${courier.outbox.retention-hours:72}")
+    private long retentionHours;
+    
+    private final ExecutorService sender;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    
+    public OutboxDispatcher(MeterRegistry registry, @Value("${courier.outbox.sender-threads:4}") int senderThreads) {
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = registry.counter("courier.notifications", "outcome", "sent");
+        this.retried = registry.counter("courier.notifications", "outcome", "retry");
+        this.dead = registry.counter("courier.notifications", "outcome", "dead");
+    }
+    
+    // Keeps claiming while batches come back full, so a backlog drains without waiting for the next tick
+    @Scheduled(fixedDelayString = "${courier.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox dispatch failed; retrying next round", e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${courier.outbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int purged = outboxRepository.deleteSentBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.debug("Purged {} sent notifications", purged);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+    
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> batch = outboxRepository.claimBatch(now, now.plusSeconds(leaseSeconds), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        // At most one message per consignment is in a batch, so they can go out in parallel
+        List<Future<?>> results = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            results.add(sender.submit(() -> {
+                Notification notification = objectMapper.readValue(message.getPayload(), Notification.class);
+                notification.setMessageId(message.getId());
+                sink.send(notification);
+                return null;
+            }));
+        }
+        
+        List<Long> delivered = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage message = batch.get(i);
+            try {
+                results.get(i).get();
+                delivered.add(message.getId());
+            } catch (ExecutionException e) {
+                failed(message, e.getCause());
+            } catch (InterruptedException e) {
+                // Shutting down; the lease expires and another round picks the rest up
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        if (!delivered.isEmpty()) {
+            outboxRepository.markSent(delivered, LocalDateTime.now());
+            sent.increment(delivered.size());
+        }
+        return batch.size();
+    }
+    
+    private void failed(OutboxMessage message, Throwable cause) {
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        if (message.getAttempts() >= maxAttempts) {
+            log.warn("Giving up on notification {} for {} after {} attempts: {}",
+                    message.getId(), message.getAggregateId(), message.getAttempts(), error);
+            outboxRepository.markFailed(message.getId(), OutboxMessage.DEAD, LocalDateTime.now(), error);
+            dead.increment();
+            return;
+        }
+        
+        // 1x, 2x, 4x ... the base delay, capped
+        long delay = Math.min(retryMaxMillis, retryBaseMillis << Math.min(message.getAttempts() - 1, 30));
+        outboxRepository.markFailed(message.getId(), OutboxMessage.PENDING,
+                LocalDateTime.now().plus(Duration.ofMillis(delay)), error);
+        retried.increment();
+    }
+}
@@ -0,0 +1,49 @@
+package com.courier.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Posts each notification as JSON to a mail/SMS relay. The outbox message id goes in the
+// Idempotency-Key header so the relay can drop redeliveries. Any non-2xx answer is retried.
+@Component
+@ConditionalOnProperty(name = "courier.notifications.sink", havingValue = "webhook")
+public class WebhookNotificationSink implements NotificationSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient client;
+    
+    public WebhookNotificationSink(ObjectMapper objectMapper,
+                                   @Value("${courier.notifications.webhook.url}") String url,
+                                   @Value("${courier.notifications.webhook.timeout-ms:5000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+    
+    @Override
+    public void send(Notification notification) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", String.valueOf(notification.getMessageId()))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(notification)))
+                .build();
+        
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook answered " + response.statusCode());
+        }
+    }
+}
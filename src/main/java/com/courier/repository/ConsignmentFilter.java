@@ -0,0 +1,63 @@
+package com.courier.repository;
+
+import java.time.LocalDate;
+
+public class ConsignmentFilter {
+    private String status;
+    private Double minWeightKg;
+    private Double maxWeightKg;
+    private LocalDate from;
+    private LocalDate to;
+    
+    public ConsignmentFilter() {
+    }
+    
+    public ConsignmentFilter(String status, Double minWeightKg, Double maxWeightKg, LocalDate from, LocalDate to) {
+        this.status = status;
+        this.minWeightKg = minWeightKg;
+        this.maxWeightKg = maxWeightKg;
+        this.from = from;
+        this.to = to;
+    }
+    
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Double getMinWeightKg() {
+        return minWeightKg;
+    }
+    
+    public void setMinWeightKg(Double minWeightKg) {
+        this.minWeightKg = minWeightKg;
+    }
+    
+    public Double getMaxWeightKg() {
+        return maxWeightKg;
+    }
+    
+    public void setMaxWeightKg(Double maxWeightKg) {
+        this.maxWeightKg = maxWeightKg;
+    }
+    
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
@@ -1,12 +1,42 @@
 package com.courier.repository;
 
 import com.courier.model.Consignment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ConsignmentRepository extends JpaRepository<Consignment, String> {
+public interface ConsignmentRepository extends JpaRepository<Consignment, String>, ConsignmentRepositoryCustom {
     List<Consignment> findByStatus(String status);
     List<Consignment> findByTruckId(String truckId);
+    
+    @Query("SELECT MAX(c.id) FROM Consignment c WHERE c.truck.id = :truckId")
+    String findAssignedConsignmentId(@Param("truckId") String truckId);
+    
+    // Locked in id order so concurrent bulk transitions cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Consignment c WHERE c.id IN :ids ORDER BY c.id")
+    List<Consignment> lockAllById(@Param("ids") Collection<String> ids);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Consignment c WHERE c.truck.id IN :truckIds ORDER BY c.id")
+    List<Consignment> lockAllByTruckIds(@Param("truckIds") Collection<String> truckIds);
+    
+    // Set-based counterparts of markAsDelivered and markAsAvailable; callers lock the rows first
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Consignment c SET c.status = 'delivered', c.truck = NULL, c.updatedAt = :now, "
+            + "c.version = c.version + 1 WHERE c.id IN :ids")
+    int markAllDelivered(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Consignment c SET c.status = 'pending', c.truck = NULL, c.updatedAt = :now, "
+            + "c.version = c.version + 1 WHERE c.id IN :ids")
+    int releaseAll(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
 }
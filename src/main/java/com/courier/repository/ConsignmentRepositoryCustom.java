@@ -0,0 +1,24 @@
+package com.courier.repository;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageCursor;
+import com.courier.dto.SearchCursor;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ConsignmentRepositoryCustom {
+    Optional<ConsignmentDTO> findDtoById(String id);
+    List<ConsignmentDTO> findPage(ConsignmentFilter filter, PageCursor after, int limit);
+    List<Object[]> findPageVersions(ConsignmentFilter filter, PageCursor after, int limit);
+    Stream<ConsignmentDTO> streamByStatus(String status);
+    List<ConsignmentSearchHit> search(String query, String status, SearchCursor after, int limit);
+    Optional<ConsignmentDTO> findArchivedDtoById(String id);
+    LocalDateTime findOldestArchivable(LocalDateTime deliveredBefore);
+    void createArchivePartition(YearMonth month);
+    List<String> archiveDelivered(LocalDateTime deliveredBefore, int limit);
+    boolean restoreArchived(String id);
+}
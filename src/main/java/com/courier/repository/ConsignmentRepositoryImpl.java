@@ -0,0 +1,235 @@
+package com.courier.repository;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageCursor;
+import com.courier.dto.SearchCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class ConsignmentRepositoryImpl implements ConsignmentRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    // c.truck.id resolves to the truck_id foreign key column, so no join is issued
+    private static final String SELECT_DTO = "SELECT new com.courier.dto.ConsignmentDTO("
+            + "c.id, c.customer, c.type, c.weight, c.weightKg, c.destination, c.status, c.date, "
+            + "c.truck.id, c.contact, c.email, c.createdAt, c.updatedAt, c.version) "
+            + "FROM Consignment c";
+    
+    // Just enough of each row to tag a page without building the DTOs
+    private static final String SELECT_VERSIONS = "SELECT c.id, c.version, c.updatedAt, c.createdAt FROM Consignment c";
+    
+    // Trigram search over the generated search_document column (see add-consignment-search-index.sql).
+    // "<%" (word similarity) catches misspellings and LIKE catches plain substrings; the GIN trigram
+    // index serves both, so only matching rows are ranked.
+    private static final String SEARCH_SQL = "SELECT * FROM ("
+            + "SELECT c.id, c.customer, c.type, c.weight, c.weight_kg, c.destination, c.status, c.date, c.truck_id, "
+            + "c.contact, c.email, c.created_at, c.updated_at, c.version, word_similarity(?, c.search_document) AS score "
+            + "FROM consignments c "
+            + "WHERE (? <%% c.search_document OR c.search_document LIKE ? ESCAPE '\\')%s"
+            + ") ranked%s "
+            + "ORDER BY ranked.score DESC, ranked.id LIMIT ?";
+    
+    private static final String ARCHIVE_COLUMNS = "id, customer, type, weight, weight_kg, destination, status, date, "
+            + "truck_id, contact, email, version, created_at, updated_at";
+    
+    // Oldest delivered rows first, skipping rows a support ticket still references (its foreign key
+    // points at the hot table) and rows another mover has locked. The row leaves the hot table and
+    // lands in the archive partition for its delivery month in one statement.
+    private static final String ARCHIVE_SQL = "WITH picked AS ("
+            + "SELECT c.id FROM consignments c "
+            + "WHERE c.status = 'delivered' AND c.updated_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM support_tickets t WHERE t.consignment_id = c.id) "
+            + "ORDER BY c.updated_at LIMIT ? FOR UPDATE OF c SKIP LOCKED"
+            + "), moved AS ("
+            + "DELETE FROM consignments c USING picked WHERE c.id = picked.id RETURNING c.*"
+            + ") INSERT INTO consignments_archive (" + ARCHIVE_COLUMNS + ") "
+            + "SELECT " + ARCHIVE_COLUMNS + " FROM moved RETURNING truck_id";
+    
+    private static final String RESTORE_SQL = "WITH restored AS ("
+            + "DELETE FROM consignments_archive WHERE id = ? RETURNING " + ARCHIVE_COLUMNS
+            + ") INSERT INTO consignments (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS + " FROM restored";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Optional<ConsignmentDTO> findDtoById(String id) {
+        return entityManager.createQuery(SELECT_DTO + " WHERE c.id = :id", ConsignmentDTO.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+    
+    @Override
+    public List<ConsignmentDTO> findPage(ConsignmentFilter filter, PageCursor after, int limit) {
+        return pageQuery(SELECT_DTO, ConsignmentDTO.class, filter, after).setMaxResults(limit).getResultList();
+    }
+    
+    @Override
+    public List<Object[]> findPageVersions(ConsignmentFilter filter, PageCursor after, int limit) {
+        return pageQuery(SELECT_VERSIONS, Object[].class, filter, after).setMaxResults(limit).getResultList();
+    }
+    
+    private <T> TypedQuery<T> pageQuery(String select, Class<T> type, ConsignmentFilter filter, PageCursor after) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getStatus() != null) {
+            predicates.add("c.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getMinWeightKg() != null) {
+            predicates.add("c.weightKg >= :minWeightKg");
+            parameters.put("minWeightKg", filter.getMinWeightKg());
+        }
+        if (filter.getMaxWeightKg() != null) {
+            predicates.add("c.weightKg <= :maxWeightKg");
+            parameters.put("maxWeightKg", filter.getMaxWeightKg());
+        }
+        if (filter.getFrom() != null) {
+            predicates.add("c.date >= :from");
+            parameters.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            predicates.add("c.date <= :to");
+            parameters.put("to", filter.getTo());
+        }
+        if (after != null) {
+            predicates.add("(c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id))");
+            parameters.put("createdAt", after.getCreatedAt());
+            parameters.put("id", after.getId());
+        }
+        
+        TypedQuery<T> query = entityManager.createQuery(
+                select + where(predicates) + " ORDER BY c.createdAt, c.id", type);
+        parameters.forEach(query::setParameter);
+        
+        return query;
+    }
+    
+    @Override
+    public Stream<ConsignmentDTO> streamByStatus(String status) {
+        List<String> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add("c.status = :status");
+        }
+        
+        TypedQuery<ConsignmentDTO> query = entityManager.createQuery(
+                SELECT_DTO + where(predicates) + " ORDER BY c.createdAt, c.id", ConsignmentDTO.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        
+        // Fetch through a server-side cursor instead of buffering the whole result
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        
+        return query.getResultStream();
+    }
+    
+    // query must already be trimmed and lower-cased
+    @Override
+    public List<ConsignmentSearchHit> search(String query, String status, SearchCursor after, int limit) {
+        List<Object> arguments = new ArrayList<>();
+        arguments.add(query);
+        arguments.add(query);
+        arguments.add("%" + escapeLike(query) + "%");
+        
+        String statusPredicate = "";
+        if (status != null) {
+            statusPredicate = " AND c.status = ?";
+            arguments.add(status);
+        }
+        String afterPredicate = "";
+        if (after != null) {
+            afterPredicate = " WHERE ranked.score < ? OR (ranked.score = ? AND ranked.id > ?)";
+            arguments.add(after.getScore());
+            arguments.add(after.getScore());
+            arguments.add(after.getId());
+        }
+        arguments.add(limit);
+        
+        return jdbcTemplate.query(String.format(SEARCH_SQL, statusPredicate, afterPredicate),
+                (rs, rowNum) -> new ConsignmentSearchHit(mapDto(rs), rs.getFloat("score")),
+                arguments.toArray());
+    }
+    
+    @Override
+    public Optional<ConsignmentDTO> findArchivedDtoById(String id) {
+        // No partition key in the predicate: one primary key probe per archive partition
+        return jdbcTemplate.query("SELECT " + ARCHIVE_COLUMNS + " FROM consignments_archive WHERE id = ?",
+                        (rs, rowNum) -> mapDto(rs), id)
+                .stream()
+                .findFirst();
+    }
+    
+    @Override
+    public LocalDateTime findOldestArchivable(LocalDateTime deliveredBefore) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(updated_at) FROM consignments WHERE status = 'delivered' AND updated_at < ?",
+                LocalDateTime.class, deliveredBefore);
+    }
+    
+    @Override
+    public void createArchivePartition(YearMonth month) {
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS consignments_archive_%d_%02d PARTITION OF consignments_archive "
+                        + "FOR VALUES FROM ('%s') TO ('%s')",
+                month.getYear(), month.getMonthValue(), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+    
+    // Returns the truck_id of every moved row (mostly null: delivery releases the truck)
+    @Override
+    public List<String> archiveDelivered(LocalDateTime deliveredBefore, int limit) {
+        return jdbcTemplate.queryForList(ARCHIVE_SQL, String.class, deliveredBefore, limit);
+    }
+    
+    @Override
+    public boolean restoreArchived(String id) {
+        return jdbcTemplate.update(RESTORE_SQL, id) > 0;
+    }
+    
+    private static ConsignmentDTO mapDto(ResultSet rs) throws SQLException {
+        return new ConsignmentDTO(
+                rs.getString("id"),
+                rs.getString("customer"),
+                rs.getString("type"),
+                rs.getString("weight"),
+                rs.getObject("weight_kg", Double.class),
+                rs.getString("destination"),
+                rs.getString("status"),
+                rs.getObject("date", LocalDate.class),
+                rs.getString("truck_id"),
+                rs.getString("contact"),
+                rs.getString("email"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("version", Long.class));
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+}
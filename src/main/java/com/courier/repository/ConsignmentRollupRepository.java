@@ -0,0 +1,10 @@
+package com.courier.repository;
+
+import com.courier.model.ConsignmentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConsignmentRollupRepository
+        extends JpaRepository<ConsignmentDailyRollup, ConsignmentDailyRollup.Key>, ConsignmentRollupRepositoryCustom {
+}
@@ -0,0 +1,14 @@
+package com.courier.repository;
+
+import com.courier.dto.ReportRowDTO;
+import com.courier.model.ConsignmentDailyRollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ConsignmentRollupRepositoryCustom {
+    void applyDeltas(Collection<ConsignmentDailyRollup> deltas);
+    int rebuild();
+    List<ReportRowDTO> summarize(String groupBy, LocalDate from, LocalDate to, String status);
+}
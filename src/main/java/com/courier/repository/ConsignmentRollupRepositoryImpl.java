@@ -0,0 +1,116 @@
+package com.courier.repository;
+
+import com.courier.dto.ReportRowDTO;
+import com.courier.model.ConsignmentDailyRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ConsignmentRollupRepositoryImpl implements ConsignmentRollupRepositoryCustom {
+
+    // Adds the delta to the row, creating it on first use
+    private static final String UPSERT_SQL = "INSERT INTO consignment_daily_rollups AS r "
+            + "(rollup_date, status, destination, type, consignment_count, weight_kg) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (rollup_date, status, destination, type) DO UPDATE "
+            + "SET consignment_count = r.consignment_count + EXCLUDED.consignment_count, "
+            + "weight_kg = r.weight_kg + EXCLUDED.weight_kg";
+    
+    // Must group exactly like ConsignmentDailyRollup.Key.of. Archived consignments still count; one
+    // statement sees a row that is being archived in exactly one of the two tables.
+    private static final String REBUILD_SQL = "INSERT INTO consignment_daily_rollups "
+            + "(rollup_date, status, destination, type, consignment_count, weight_kg) "
+            + "SELECT COALESCE(date, CAST(created_at AS DATE)), COALESCE(status, ''), COALESCE(destination, ''), "
+            + "COALESCE(type, ''), COUNT(*), COALESCE(SUM(weight_kg), 0) "
+            + "FROM (SELECT date, created_at, status, destination, type, weight_kg FROM consignments "
+            + "UNION ALL SELECT date, created_at, status, destination, type, weight_kg FROM consignments_archive) c "
+            + "GROUP BY COALESCE(date, CAST(created_at AS DATE)), COALESCE(status, ''), COALESCE(destination, ''), "
+            + "COALESCE(type, '')";
+    
+    private static final Map<String, String> DIMENSIONS = Map.of(
+            "day", "r.rollupDate",
+            "status", "r.status",
+            "destination", "r.destination",
+            "type", "r.type");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void applyDeltas(Collection<ConsignmentDailyRollup> deltas) {
+        List<ConsignmentDailyRollup> rows = new ArrayList<>(deltas);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.getRollupDate());
+            ps.setString(2, row.getStatus());
+            ps.setString(3, row.getDestination());
+            ps.setString(4, row.getType());
+            ps.setLong(5, row.getConsignmentCount());
+            ps.setObject(6, row.getWeightKg(), Types.DOUBLE);
+        });
+    }
+    
+    // Recomputes every row from the consignments and archive tables. The exclusive lock waits for
+    // writers with pending deltas to commit and holds new ones back until the rebuild commits, so no
+    // change is counted twice or lost.
+    @Override
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE consignment_daily_rollups IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM consignment_daily_rollups");
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+    
+    @Override
+    public List<ReportRowDTO> summarize(String groupBy, LocalDate from, LocalDate to, String status) {
+        String dimension = DIMENSIONS.get(groupBy);
+        if (dimension == null) {
+            throw new IllegalArgumentException("Unknown groupBy: " + groupBy);
+        }
+        
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (from != null) {
+            predicates.add("r.rollupDate >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            predicates.add("r.rollupDate <= :to");
+            parameters.put("to", to);
+        }
+        if (status != null) {
+            predicates.add("r.status = :status");
+            parameters.put("status", status);
+        }
+        
+        StringBuilder jpql = new StringBuilder("SELECT ").append(dimension)
+                .append(", SUM(r.consignmentCount), SUM(r.weightKg) FROM ConsignmentDailyRollup r");
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        jpql.append(" GROUP BY ").append(dimension);
+        // Groups whose consignments all moved elsewhere keep zero rows until the next rebuild
+        jpql.append(" HAVING SUM(r.consignmentCount) > 0");
+        // Days read as a time series; other dimensions largest first
+        jpql.append("day".equals(groupBy) ? " ORDER BY " + dimension : " ORDER BY SUM(r.consignmentCount) DESC");
+        
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        
+        return query.getResultList().stream()
+                .map(row -> new ReportRowDTO(String.valueOf(row[0]), (Long) row[1], (Double) row[2]))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,23 @@
+package com.courier.repository;
+
+import com.courier.dto.ConsignmentDTO;
+
+// A search result with the rank it was ordered by
+public class ConsignmentSearchHit {
+    
+    private final ConsignmentDTO consignment;
+    private final float score;
+    
+    public ConsignmentSearchHit(ConsignmentDTO consignment, float score) {
+        this.consignment = consignment;
+        this.score = score;
+    }
+    
+    public ConsignmentDTO getConsignment() {
+        return consignment;
+    }
+    
+    public float getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,16 @@
+package com.courier.repository;
+
+import com.courier.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long>, OutboxMessageRepositoryCustom {
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = 'sent' AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
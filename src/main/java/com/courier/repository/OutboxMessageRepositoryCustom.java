@@ -0,0 +1,14 @@
+package com.courier.repository;
+
+import com.courier.model.OutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepositoryCustom {
+    void insertAll(Collection<OutboxMessage> messages);
+    List<OutboxMessage> claimBatch(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+    void markSent(Collection<Long> ids, LocalDateTime now);
+    void markFailed(Long id, String status, LocalDateTime availableAt, String error);
+}
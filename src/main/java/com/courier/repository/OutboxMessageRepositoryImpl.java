@@ -0,0 +1,85 @@
+package com.courier.repository;
+
+import com.courier.model.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class OutboxMessageRepositoryImpl implements OutboxMessageRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO notification_outbox "
+            + "(aggregate_id, event_type, payload, status, attempts, available_at, created_at) "
+            + "VALUES (?, ?, ?, 'pending', 0, ?, ?)";
+    
+    // Leases up to limit due messages, taking only the oldest pending message of each aggregate so a
+    // consignment's notifications go out in the order they were written, even across dispatchers.
+    // SKIP LOCKED lets several instances claim disjoint batches; the lease (available_at) keeps a
+    // claimed message away from other dispatchers until it is marked, or until the lease runs out
+    // because its dispatcher died.
+    private static final String CLAIM_SQL = "UPDATE notification_outbox o "
+            + "SET available_at = ?, attempts = o.attempts + 1 "
+            + "FROM (SELECT c.id FROM notification_outbox c "
+            + "WHERE c.status = 'pending' AND c.available_at <= ? "
+            + "AND NOT EXISTS (SELECT 1 FROM notification_outbox p "
+            + "WHERE p.status = 'pending' AND p.aggregate_id = c.aggregate_id AND p.id < c.id) "
+            + "ORDER BY c.id LIMIT ? FOR UPDATE SKIP LOCKED) next "
+            + "WHERE o.id = next.id "
+            + "RETURNING o.id, o.aggregate_id, o.event_type, o.payload, o.attempts";
+    
+    private static final String MARK_SENT_SQL = "UPDATE notification_outbox SET status = 'sent', sent_at = ? "
+            + "WHERE id = ?";
+    
+    private static final String MARK_FAILED_SQL = "UPDATE notification_outbox "
+            + "SET status = ?, available_at = ?, last_error = ? WHERE id = ?";
+    
+    // Stored error messages are truncated to the column length
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void insertAll(Collection<OutboxMessage> messages) {
+        List<OutboxMessage> rows = new ArrayList<>(messages);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getAggregateId());
+            ps.setString(2, row.getEventType());
+            ps.setString(3, row.getPayload());
+            ps.setObject(4, row.getAvailableAt());
+            ps.setObject(5, row.getCreatedAt());
+        });
+    }
+    
+    @Override
+    public List<OutboxMessage> claimBatch(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            OutboxMessage message = new OutboxMessage();
+            message.setId(rs.getLong("id"));
+            message.setAggregateId(rs.getString("aggregate_id"));
+            message.setEventType(rs.getString("event_type"));
+            message.setPayload(rs.getString("payload"));
+            message.setAttempts(rs.getInt("attempts"));
+            message.setStatus(OutboxMessage.PENDING);
+            return message;
+        }, leaseUntil, now, limit);
+    }
+    
+    @Override
+    public void markSent(Collection<Long> ids, LocalDateTime now) {
+        List<Long> rows = new ArrayList<>(ids);
+        jdbcTemplate.batchUpdate(MARK_SENT_SQL, rows, rows.size(), (ps, id) -> {
+            ps.setObject(1, now);
+            ps.setLong(2, id);
+        });
+    }
+    
+    @Override
+    public void markFailed(Long id, String status, LocalDateTime availableAt, String error) {
+        String truncated = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        jdbcTemplate.update(MARK_FAILED_SQL, status, availableAt, truncated, id);
+    }
+}
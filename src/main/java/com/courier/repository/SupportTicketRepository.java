@@ -2,11 +2,19 @@ package com.courier.repository;
 
 import com.courier.model.SupportTicket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface SupportTicketRepository extends JpaRepository<SupportTicket, String> {
+public interface SupportTicketRepository extends JpaRepository<SupportTicket, String>, SupportTicketRepositoryCustom {
     List<SupportTicket> findByUserId(String userId);
     List<SupportTicket> findByStatus(String status);
+    
+    // Rows of (status, priority, count) for the queue depth counters
+    @Query("SELECT t.status, t.priority, COUNT(t) FROM SupportTicket t WHERE t.status IN :statuses "
+            + "GROUP BY t.status, t.priority")
+    List<Object[]> countByStatusAndPriority(@Param("statuses") Collection<String> statuses);
 }
@@ -0,0 +1,17 @@
+package com.courier.repository;
+
+import com.courier.dto.PageCursor;
+import com.courier.dto.TicketDTO;
+import com.courier.dto.TicketSummaryDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SupportTicketRepositoryCustom {
+    Optional<TicketDTO> claimNext(String agentId, String category, LocalDateTime now);
+    String resolveClaimed(String id, String agentId, LocalDateTime now);
+    String releaseClaimed(String id, String agentId, LocalDateTime now);
+    List<TicketSummaryDTO> findInboxPage(String userId, PageCursor after, int limit);
+    List<TicketSummaryDTO> findAssignedPage(String agentId, PageCursor after, int limit);
+}
@@ -0,0 +1,133 @@
+package com.courier.repository;
+
+import com.courier.dto.PageCursor;
+import com.courier.dto.TicketDTO;
+import com.courier.dto.TicketSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class SupportTicketRepositoryImpl implements SupportTicketRepositoryCustom {
+
+    private static final String RETURNING = " RETURNING t.id, t.subject, t.description, t.category, t.priority, "
+            + "t.status, t.user_id, t.consignment_id, t.assigned_to, t.claimed_at, t.created_at, t.updated_at";
+    
+    // Takes the most urgent, oldest open ticket in one statement. SKIP LOCKED passes over rows another
+    // agent is claiming right now instead of queueing behind them, so concurrent claims never wait on
+    // each other and never get the same ticket. The partial queue index serves the ORDER BY.
+    private static final String CLAIM_SQL = "UPDATE support_tickets t "
+            + "SET status = 'in-progress', assigned_to = ?, claimed_at = ?, updated_at = ? "
+            + "FROM (SELECT id FROM support_tickets WHERE status = 'open'%s "
+            + "ORDER BY priority_rank, created_at, id LIMIT 1 FOR UPDATE SKIP LOCKED) next "
+            + "WHERE t.id = next.id" + RETURNING;
+    
+    // Only the agent holding the claim can move the ticket on; the condition makes a repeat a no-op
+    private static final String RESOLVE_SQL = "UPDATE support_tickets t SET status = 'resolved', updated_at = ? "
+            + "WHERE t.id = ? AND t.status = 'in-progress' AND t.assigned_to = ? RETURNING t.priority";
+    
+    // A released ticket goes back to its original place in the queue
+    private static final String RELEASE_SQL = "UPDATE support_tickets t "
+            + "SET status = 'open', assigned_to = NULL, claimed_at = NULL, updated_at = ? "
+            + "WHERE t.id = ? AND t.status = 'in-progress' AND t.assigned_to = ? RETURNING t.priority";
+    
+    private static final String SELECT_SUMMARY = "SELECT new com.courier.dto.TicketSummaryDTO("
+            + "t.id, t.subject, t.category, t.priority, t.status, t.createdAt, t.updatedAt) "
+            + "FROM SupportTicket t";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Optional<TicketDTO> claimNext(String agentId, String category, LocalDateTime now) {
+        List<Object> arguments = new ArrayList<>();
+        arguments.add(agentId);
+        arguments.add(now);
+        arguments.add(now);
+        
+        String categoryPredicate = "";
+        if (category != null) {
+            categoryPredicate = " AND category = ?";
+            arguments.add(category);
+        }
+        
+        return jdbcTemplate.query(String.format(CLAIM_SQL, categoryPredicate),
+                        (rs, rowNum) -> mapDto(rs), arguments.toArray())
+                .stream()
+                .findFirst();
+    }
+    
+    // Returns the ticket's priority, or null when the caller does not hold a claim on it
+    @Override
+    public String resolveClaimed(String id, String agentId, LocalDateTime now) {
+        return firstPriority(RESOLVE_SQL, now, id, agentId);
+    }
+    
+    @Override
+    public String releaseClaimed(String id, String agentId, LocalDateTime now) {
+        return firstPriority(RELEASE_SQL, now, id, agentId);
+    }
+    
+    // Newest first: tickets the user opened
+    @Override
+    public List<TicketSummaryDTO> findInboxPage(String userId, PageCursor after, int limit) {
+        return findPage("t.user.id", userId, after, limit);
+    }
+    
+    // Newest first: tickets the agent has claimed
+    @Override
+    public List<TicketSummaryDTO> findAssignedPage(String agentId, PageCursor after, int limit) {
+        return findPage("t.assignedTo", agentId, after, limit);
+    }
+    
+    // t.user.id resolves to the user_id column, so no join is issued and the owner index covers the query
+    private List<TicketSummaryDTO> findPage(String ownerPath, String owner, PageCursor after, int limit) {
+        String jpql = SELECT_SUMMARY + " WHERE " + ownerPath + " = :owner";
+        if (after != null) {
+            jpql += " AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))";
+        }
+        
+        TypedQuery<TicketSummaryDTO> query = entityManager.createQuery(
+                jpql + " ORDER BY t.createdAt DESC, t.id DESC", TicketSummaryDTO.class);
+        query.setParameter("owner", owner);
+        if (after != null) {
+            query.setParameter("createdAt", after.getCreatedAt());
+            query.setParameter("id", after.getId());
+        }
+        
+        return query.setMaxResults(limit).getResultList();
+    }
+    
+    private String firstPriority(String sql, Object... arguments) {
+        List<String> priorities = jdbcTemplate.queryForList(sql, String.class, arguments);
+        return priorities.isEmpty() ? null : priorities.get(0);
+    }
+    
+    private static TicketDTO mapDto(ResultSet rs) throws SQLException {
+        TicketDTO dto = new TicketDTO();
+        dto.setId(rs.getString("id"));
+        dto.setSubject(rs.getString("subject"));
+        dto.setDescription(rs.getString("description"));
+        dto.setCategory(rs.getString("category"));
+        dto.setPriority(rs.getString("priority"));
+        dto.setStatus(rs.getString("status"));
+        dto.setUserId(rs.getString("user_id"));
+        dto.setConsignmentId(rs.getString("consignment_id"));
+        dto.setAssignedTo(rs.getString("assigned_to"));
+        dto.setClaimedAt(rs.getObject("claimed_at", LocalDateTime.class));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return dto;
+    }
+}
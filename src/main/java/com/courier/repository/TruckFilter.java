@@ -0,0 +1,84 @@
+package com.courier.repository;
+
+import java.time.LocalDate;
+
+public class TruckFilter {
+    private String status;
+    private String type;
+    private String location;
+    private Double minCapacityKg;
+    private Double maxCapacityKg;
+    private LocalDate from;
+    private LocalDate to;
+    
+    public TruckFilter() {
+    }
+    
+    public TruckFilter(String status, String type, String location, Double minCapacityKg, Double maxCapacityKg,
+                       LocalDate from, LocalDate to) {
+        this.status = status;
+        this.type = type;
+        this.location = location;
+        this.minCapacityKg = minCapacityKg;
+        this.maxCapacityKg = maxCapacityKg;
+        this.from = from;
+        this.to = to;
+    }
+    
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public Double getMinCapacityKg() {
+        return minCapacityKg;
+    }
+    
+    public void setMinCapacityKg(Double minCapacityKg) {
+        this.minCapacityKg = minCapacityKg;
+    }
+    
+    public Double getMaxCapacityKg() {
+        return maxCapacityKg;
+    }
+    
+    public void setMaxCapacityKg(Double maxCapacityKg) {
+        this.maxCapacityKg = maxCapacityKg;
+    }
+    
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
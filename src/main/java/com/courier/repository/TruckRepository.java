@@ -1,11 +1,40 @@
 package com.courier.repository;
 
 import com.courier.model.Truck;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TruckRepository extends JpaRepository<Truck, String> {
+public interface TruckRepository extends JpaRepository<Truck, String>, TruckRepositoryCustom {
     List<Truck> findByStatus(String status);
+    
+    // Conditional claim: only one caller can move a given truck out of "available"
+    @Modifying
+    @Query("UPDATE Truck t SET t.status = 'in-transit', t.updatedAt = :now, t.version = t.version + 1 "
+            + "WHERE t.id = :id AND t.status = 'available'")
+    int claimIfAvailable(@Param("id") String id, @Param("now") LocalDateTime now);
+    
+    // Concurrent callers each lock a different free truck instead of queueing on the same row
+    @Query(value = "SELECT id FROM trucks WHERE status = 'available' "
+            + "ORDER BY updated_at LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<String> lockNextAvailableId();
+    
+    // Locked in id order so concurrent bulk transitions cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Truck t WHERE t.id IN :ids ORDER BY t.id")
+    List<Truck> lockAllById(@Param("ids") Collection<String> ids);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Truck t SET t.status = 'available', t.updatedAt = :now, t.version = t.version + 1 "
+            + "WHERE t.id IN :ids")
+    int markAllAvailable(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
 }
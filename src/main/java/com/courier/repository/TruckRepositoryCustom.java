@@ -0,0 +1,16 @@
+package com.courier.repository;
+
+import com.courier.dto.PageCursor;
+import com.courier.dto.TruckDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TruckRepositoryCustom {
+    Optional<TruckDTO> findDtoById(String id);
+    List<TruckDTO> findDtosByIds(Collection<String> ids);
+    List<TruckDTO> findPage(TruckFilter filter, PageCursor after, int limit);
+    Stream<TruckDTO> streamByStatus(String status);
+}
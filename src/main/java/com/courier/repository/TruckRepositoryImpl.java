@@ -0,0 +1,118 @@
+package com.courier.repository;
+
+import com.courier.dto.PageCursor;
+import com.courier.dto.TruckDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class TruckRepositoryImpl implements TruckRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    // The assigned consignment is read as a correlated scalar on consignments.truck_id,
+    // keeping the whole list to a single statement
+    private static final String SELECT_DTO = "SELECT new com.courier.dto.TruckDTO("
+            + "t.id, t.driver, t.type, t.capacity, t.capacityKg, t.location, t.status, t.lastMaintenance, "
+            + "(SELECT MAX(c.id) FROM Consignment c WHERE c.truck.id = t.id), "
+            + "t.createdAt, t.updatedAt, t.version) "
+            + "FROM Truck t";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<TruckDTO> findDtoById(String id) {
+        return entityManager.createQuery(SELECT_DTO + " WHERE t.id = :id", TruckDTO.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+    
+    @Override
+    public List<TruckDTO> findDtosByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return entityManager.createQuery(SELECT_DTO + " WHERE t.id IN :ids", TruckDTO.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+    
+    @Override
+    public List<TruckDTO> findPage(TruckFilter filter, PageCursor after, int limit) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getStatus() != null) {
+            predicates.add("t.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getType() != null) {
+            predicates.add("t.type = :type");
+            parameters.put("type", filter.getType());
+        }
+        if (filter.getLocation() != null) {
+            predicates.add("t.location = :location");
+            parameters.put("location", filter.getLocation());
+        }
+        if (filter.getMinCapacityKg() != null) {
+            predicates.add("t.capacityKg >= :minCapacityKg");
+            parameters.put("minCapacityKg", filter.getMinCapacityKg());
+        }
+        if (filter.getMaxCapacityKg() != null) {
+            predicates.add("t.capacityKg <= :maxCapacityKg");
+            parameters.put("maxCapacityKg", filter.getMaxCapacityKg());
+        }
+        if (filter.getFrom() != null) {
+            predicates.add("t.lastMaintenance >= :from");
+            parameters.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            predicates.add("t.lastMaintenance <= :to");
+            parameters.put("to", filter.getTo());
+        }
+        if (after != null) {
+            predicates.add("(t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id))");
+            parameters.put("createdAt", after.getCreatedAt());
+            parameters.put("id", after.getId());
+        }
+        
+        TypedQuery<TruckDTO> query = entityManager.createQuery(
+                SELECT_DTO + where(predicates) + " ORDER BY t.createdAt, t.id", TruckDTO.class);
+        parameters.forEach(query::setParameter);
+        
+        return query.setMaxResults(limit).getResultList();
+    }
+    
+    @Override
+    public Stream<TruckDTO> streamByStatus(String status) {
+        List<String> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add("t.status = :status");
+        }
+        
+        TypedQuery<TruckDTO> query = entityManager.createQuery(
+                SELECT_DTO + where(predicates) + " ORDER BY t.createdAt, t.id", TruckDTO.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        
+        // Fetch through a server-side cursor instead of buffering the whole result
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        
+        return query.getResultStream();
+    }
+    
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+}
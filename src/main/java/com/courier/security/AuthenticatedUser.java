@@ -0,0 +1,49 @@
+package com.courier.security;
+
+import com.courier.model.UserRole;
+
+import java.security.Principal;
+import java.time.Instant;
+
+// Principal built from verified token claims alone; never loaded from the users table
+public class AuthenticatedUser implements Principal {
+
+    private final String id;
+    private final String email;
+    private final UserRole role;
+    private final String tokenId;
+    private final Instant expiresAt;
+    
+    public AuthenticatedUser(String id, String email, UserRole role, String tokenId, Instant expiresAt) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public UserRole getRole() {
+        return role;
+    }
+    
+    public String getTokenId() {
+        return tokenId;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.courier.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+// Authenticates "Authorization: Bearer <token>" requests from the token claims alone.
+// A missing or invalid token leaves the request anonymous; the security chain answers 401.
+// EventSource cannot set headers, so the change feed instead takes a ticket from
+// POST /api/events/ticket as a parameter; a session token in the URL is not accepted.
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String EVENTS_PATH = "/api/events";
+    
+    private final JwtService jwtService;
+    
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AuthenticatedUser user = null;
+        String credential = resolveToken(request);
+        if (credential != null) {
+            user = jwtService.verify(credential);
+        } else if (EVENTS_PATH.equals(request.getServletPath())) {
+            credential = request.getParameter("ticket");
+            user = credential != null ? jwtService.verifyEventTicket(credential) : null;
+        }
+        
+        if (user != null) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    user, credential, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    private static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        return null;
+    }
+}
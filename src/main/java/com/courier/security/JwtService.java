@@ -0,0 +1,153 @@
+package com.courier.security;
+
+import com.courier.model.User;
+import com.courier.model.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+
+// Issues and verifies HS256 access tokens. Tokens carry everything the filter needs (id, email, role),
+// so authenticating a request never touches the database. Verified tokens are cached briefly so a
+// client's repeat requests skip the signature check; revocation is checked on every request.
+// Change feed tickets are short-lived tokens for the same session that only /api/events accepts,
+// so the session token itself never has to appear in a URL.
+@Component
+public class JwtService {
+
+    private static final String EVENTS_AUDIENCE = "events";
+    
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long expirationMillis;
+    private final long eventTicketMillis;
+    private final Cache<String, AuthenticatedUser> verified;
+    
+    @Autowired
+    private TokenDenyList denyList;
+    
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration}") long expirationMillis,
+                      @Value("${courier.auth.event-ticket-ttl-seconds:60}") long eventTicketTtlSeconds,
+                      @Value("${courier.auth.verified-cache-size:10000}") long cacheSize,
+                      @Value("${courier.auth.verified-cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        // Any configured secret becomes a full-length HS256 key
+        this.key = Keys.hmacShaKeyFor(sha256(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.expirationMillis = expirationMillis;
+        this.eventTicketMillis = Duration.ofSeconds(eventTicketTtlSeconds).toMillis();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+    
+    public String issue(User user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getId())
+                .claim("email", user.getEmail())
+                .claim("role", user.getRole() != null ? user.getRole().name() : UserRole.CUSTOMER.name())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusMillis(expirationMillis)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+    
+    // Carries the session's token id, so logging out also revokes the tickets issued for it
+    public String issueEventTicket(AuthenticatedUser user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(eventTicketMillis);
+        return Jwts.builder()
+                .setId(user.getTokenId())
+                .setSubject(user.getId())
+                .setAudience(EVENTS_AUDIENCE)
+                .claim("email", user.getEmail())
+                .claim("role", user.getRole().name())
+                .setIssuedAt(Date.from(now))
+                // Never outlives the session it was issued for
+                .setExpiration(Date.from(expiresAt.isBefore(user.getExpiresAt()) ? expiresAt : user.getExpiresAt()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+    
+    public long getEventTicketSeconds() {
+        return Duration.ofMillis(eventTicketMillis).toSeconds();
+    }
+    
+    // Returns null for a token that is malformed, forged, expired or revoked, and for a change feed ticket
+    public AuthenticatedUser verify(String token) {
+        AuthenticatedUser user = verified.getIfPresent(token);
+        if (user == null) {
+            user = parse(token, null);
+            if (user == null) {
+                return null;
+            }
+            verified.put(token, user);
+        }
+        
+        if (!user.getExpiresAt().isAfter(Instant.now()) || denyList.isRevoked(user.getTokenId())) {
+            verified.invalidate(token);
+            return null;
+        }
+        return user;
+    }
+    
+    // Returns null unless the ticket is a change feed ticket that has not expired and whose session is not revoked
+    public AuthenticatedUser verifyEventTicket(String ticket) {
+        AuthenticatedUser user = parse(ticket, EVENTS_AUDIENCE);
+        if (user == null || denyList.isRevoked(user.getTokenId())) {
+            return null;
+        }
+        return user;
+    }
+    
+    public void revoke(AuthenticatedUser user) {
+        denyList.revoke(user.getTokenId(), user.getExpiresAt());
+    }
+    
+    private AuthenticatedUser parse(String token, String audience) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String role = claims.get("role", String.class);
+            if (claims.getId() == null || claims.getExpiration() == null || role == null
+                    || !Objects.equals(claims.getAudience(), audience)) {
+                return null;
+            }
+            return new AuthenticatedUser(
+                    claims.getSubject(),
+                    claims.get("email", String.class),
+                    UserRole.valueOf(role),
+                    claims.getId(),
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static byte[] sha256(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
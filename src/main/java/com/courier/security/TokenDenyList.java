@@ -0,0 +1,52 @@
+package com.courier.security;
+
+import com.courier.model.RevokedToken;
+import com.courier.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ids of revoked tokens that have not expired yet. Lookups are served from memory; the table lets
+// other instances and restarts see revocations, and an entry is dropped once its token would have
+// expired anyway, so the list only ever holds tokens revoked within the last token lifetime.
+@Component
+public class TokenDenyList {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+    
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        RevokedToken token = new RevokedToken();
+        token.setTokenId(tokenId);
+        token.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(token);
+        revoked.put(tokenId, expiresAt);
+    }
+    
+    // Picks up revocations made by other instances and prunes expired entries
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${courier.auth.deny-list-refresh-ms:30000}")
+    @Transactional
+    public void refresh() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteByExpiresAtBefore(now);
+        for (RevokedToken token : revokedTokenRepository.findAll()) {
+            revoked.put(token.getTokenId(), token.getExpiresAt());
+        }
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+}
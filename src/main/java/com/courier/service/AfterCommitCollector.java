@@ -0,0 +1,45 @@
+package com.courier.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Collects keys touched by the current transaction and hands them to the consumer in one call
+// once it commits; rolled back work is dropped. Outside a transaction keys are handed over at once.
+public class AfterCommitCollector<T> {
+
+    private final Consumer<Set<T>> onCommit;
+    
+    public AfterCommitCollector(Consumer<Set<T>> onCommit) {
+        this.onCommit = onCommit;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public void add(T key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.accept(Collections.singleton(key));
+            return;
+        }
+        
+        Set<T> pending = (Set<T>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<T> keys = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AfterCommitCollector.this);
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.accept(keys);
+                    }
+                }
+            });
+            pending = keys;
+        }
+        pending.add(key);
+    }
+}
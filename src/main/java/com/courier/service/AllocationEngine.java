@@ -0,0 +1,137 @@
+package com.courier.service;
+
+import com.courier.dto.AllocationAssignment;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+// Pure in-memory solver: matches pending consignments to available trucks, one consignment per truck.
+// Scoring every consignment against the fleet is the expensive part and runs in parallel;
+// the conflict-resolving greedy pass over the ranked options is sequential and cheap.
+@Component
+public class AllocationEngine {
+
+    private static final double SAME_CITY_BONUS = 1.0;
+    
+    public List<AllocationAssignment> solve(List<ConsignmentDTO> consignments, List<TruckDTO> trucks) {
+        Load[] loads = consignments.stream().map(Load::new).toArray(Load[]::new);
+        Vehicle[] vehicles = trucks.stream().map(Vehicle::new).toArray(Vehicle[]::new);
+        
+        // Rank feasible trucks for every consignment in parallel
+        Option[][] options = new Option[loads.length][];
+        IntStream.range(0, loads.length).parallel()
+                .forEach(i -> options[i] = rank(loads[i], vehicles));
+        
+        // Place the most constrained consignments first, heaviest first among equals
+        Integer[] order = IntStream.range(0, loads.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator
+                .comparingInt((Integer i) -> options[i].length)
+                .thenComparingDouble(i -> -loads[i].weightKg));
+        
+        boolean[] taken = new boolean[vehicles.length];
+        List<AllocationAssignment> assignments = new ArrayList<>();
+        for (int i : order) {
+            for (Option option : options[i]) {
+                if (!taken[option.vehicle]) {
+                    taken[option.vehicle] = true;
+                    assignments.add(new AllocationAssignment(loads[i].id, vehicles[option.vehicle].id, option.score));
+                    break;
+                }
+            }
+        }
+        
+        return assignments;
+    }
+    
+    private Option[] rank(Load load, Vehicle[] vehicles) {
+        if (Double.isNaN(load.weightKg)) {
+            return new Option[0];
+        }
+        
+        List<Option> feasible = new ArrayList<>();
+        for (int v = 0; v < vehicles.length; v++) {
+            Vehicle vehicle = vehicles[v];
+            if (Double.isNaN(vehicle.capacityKg) || vehicle.capacityKg < load.weightKg || !compatible(load, vehicle)) {
+                continue;
+            }
+            
+            // Prefer a truck already in the destination city, then the tightest fit
+            double score = load.weightKg / vehicle.capacityKg;
+            if (load.city.equals(vehicle.city)) {
+                score += SAME_CITY_BONUS;
+            }
+            feasible.add(new Option(v, score));
+        }
+        
+        Option[] ranked = feasible.toArray(new Option[0]);
+        Arrays.sort(ranked, (a, b) -> Double.compare(b.score, a.score));
+        return ranked;
+    }
+    
+    private static boolean compatible(Load load, Vehicle vehicle) {
+        // Freight does not fit in a delivery van regardless of weight
+        return !("freight".equals(load.type) && "delivery van".equals(vehicle.type));
+    }
+    
+    private static double kilograms(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+    
+    static String city(String place) {
+        if (place == null) {
+            return "";
+        }
+        int comma = place.indexOf(',');
+        String city = comma >= 0 ? place.substring(0, comma) : place;
+        return city.replace('-', ' ').trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static final class Load {
+        final String id;
+        final String type;
+        final String city;
+        final double weightKg;
+        
+        Load(ConsignmentDTO consignment) {
+            this.id = consignment.getId();
+            this.type = normalize(consignment.getType());
+            this.city = city(consignment.getDestination());
+            this.weightKg = kilograms(consignment.getWeightKg());
+        }
+    }
+    
+    private static final class Vehicle {
+        final String id;
+        final String type;
+        final String city;
+        final double capacityKg;
+        
+        Vehicle(TruckDTO truck) {
+            this.id = truck.getId();
+            this.type = normalize(truck.getType());
+            this.city = city(truck.getLocation());
+            this.capacityKg = kilograms(truck.getCapacityKg());
+        }
+    }
+    
+    private static final class Option {
+        final int vehicle;
+        final double score;
+        
+        Option(int vehicle, double score) {
+            this.vehicle = vehicle;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.courier.service;
+
+import com.courier.dto.AllocationAssignment;
+import com.courier.dto.AllocationPlan;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import com.courier.metrics.AllocationMetrics;
+import com.courier.model.Consignment;
+import com.courier.repository.ConsignmentRepository;
+import com.courier.repository.TruckRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class AllocationService {
+
+    @Autowired
+    private ConsignmentRepository consignmentRepository;
+    
+    @Autowired
+    private TruckRepository truckRepository;
+    
+    @Autowired
+    private ConsignmentService consignmentService;
+    
+    @Autowired
+    private AllocationEngine allocationEngine;
+    
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private AllocationMetrics allocationMetrics;
+    
+    @Transactional(readOnly = true)
+    public AllocationPlan preview() {
+        AllocationPlan plan = plan();
+        plan.setDryRun(true);
+        return plan;
+    }
+    
+    public AllocationPlan allocateAll() {
+        // Counted once the transaction committed, not per attempt
+        AtomicInteger skipped = new AtomicInteger();
+        AllocationPlan result = optimisticRetry.execute(status -> {
+            AllocationPlan plan = plan();
+            plan.setDryRun(false);
+            
+            List<AllocationAssignment> assignments = plan.getAssignments();
+            if (assignments.isEmpty()) {
+                return plan;
+            }
+            
+            // Load every paired consignment in one statement rather than one per assignment
+            Map<String, Consignment> consignments = consignmentRepository.findAllById(
+                    assignments.stream().map(AllocationAssignment::getConsignmentId).collect(Collectors.toList()))
+                    .stream().collect(Collectors.toMap(Consignment::getId, Function.identity()));
+            
+            List<AllocationAssignment> applied = new ArrayList<>();
+            for (AllocationAssignment assignment : assignments) {
+                Consignment consignment = consignments.get(assignment.getConsignmentId());
+                
+                // Skip pairs whose state moved since the snapshot was read
+                if (consignment == null
+                        || !"pending".equals(consignment.getStatus())
+                        || !consignmentService.claimTruck(consignment, assignment.getTruckId())) {
+                    plan.getUnassignedConsignmentIds().add(assignment.getConsignmentId());
+                    continue;
+                }
+                
+                applied.add(assignment);
+            }
+            
+            plan.setAssignments(applied);
+            skipped.set(assignments.size() - applied.size());
+            return plan;
+        });
+        
+        allocationMetrics.count("auto", AllocationMetrics.SUCCESS, result.getAssignments().size());
+        allocationMetrics.count("auto", AllocationMetrics.CONFLICT, skipped.get());
+        return result;
+    }
+    
+    private AllocationPlan plan() {
+        List<ConsignmentDTO> pending;
+        try (Stream<ConsignmentDTO> rows = consignmentRepository.streamByStatus("pending")) {
+            pending = rows.collect(Collectors.toList());
+        }
+        List<TruckDTO> available;
+        try (Stream<TruckDTO> rows = truckRepository.streamByStatus("available")) {
+            available = rows.collect(Collectors.toList());
+        }
+        
+        long started = System.nanoTime();
+        List<AllocationAssignment> assignments = allocationEngine.solve(pending, available);
+        long solveMillis = (System.nanoTime() - started) / 1_000_000;
+        
+        Set<String> assigned = new HashSet<>();
+        for (AllocationAssignment assignment : assignments) {
+            assigned.add(assignment.getConsignmentId());
+        }
+        
+        AllocationPlan plan = new AllocationPlan();
+        plan.setPendingConsignments(pending.size());
+        plan.setAvailableTrucks(available.size());
+        plan.setAssignments(assignments);
+        plan.setUnassignedConsignmentIds(pending.stream()
+                .map(ConsignmentDTO::getId)
+                .filter(id -> !assigned.contains(id))
+                .collect(Collectors.toList()));
+        plan.setSolveMillis(solveMillis);
+        return plan;
+    }
+}
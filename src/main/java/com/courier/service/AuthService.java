@@ -0,0 +1,50 @@
+package com.courier.service;
+
+import com.courier.dto.LoginResponse;
+import com.courier.model.User;
+import com.courier.repository.UserRepository;
+import com.courier.security.AuthenticatedUser;
+import com.courier.security.JwtService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Login is the only place a user row is read; later requests are authenticated from the token
+@Service
+public class AuthService {
+
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    // Returns null for an unknown email or a wrong password
+    @Transactional(readOnly = true)
+    public LoginResponse login(String email, String password) {
+        if (email == null || password == null) {
+            return null;
+        }
+        
+        Optional<User> optionalUser = userRepository.findByEmail(email);
+        if (optionalUser.isEmpty() || !passwordEncoder.matches(password, optionalUser.get().getPassword())) {
+            return null;
+        }
+        
+        User user = optionalUser.get();
+        String token = jwtService.issue(user);
+        AuthenticatedUser principal = jwtService.verify(token);
+        return new LoginResponse(token, principal.getExpiresAt(), user.getId(), user.getEmail(),
+                user.getFullName(), principal.getRole().name());
+    }
+    
+    public void logout(AuthenticatedUser user) {
+        jwtService.revoke(user);
+    }
+}
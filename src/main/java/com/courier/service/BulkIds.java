@@ -0,0 +1,32 @@
+package com.courier.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Id lists for the bulk transition endpoints
+final class BulkIds {
+
+    private BulkIds() {
+    }
+    
+    // Distinct ids in request order; rejects empty, oversized or null-containing lists
+    static List<String> distinct(List<String> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per request");
+        }
+        
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("Ids must not be blank");
+            }
+            distinct.add(id);
+        }
+        return new ArrayList<>(distinct);
+    }
+}
@@ -0,0 +1,207 @@
+package com.courier.service;
+
+import com.courier.dto.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+// Fan-out of committed consignment/truck changes to Server-Sent Events subscribers.
+// The last events are kept in a ring buffer so a reconnecting client resumes from its Last-Event-ID.
+// Each client has a small bounded queue drained by a shared sender pool; a client that falls further
+// behind than its queue is disconnected and catches up from the ring buffer when it reconnects,
+// so a slow dashboard never holds up the writers or the other clients.
+@Component
+public class ChangeFeed {
+
+    // Queue markers that are not ring buffer entries
+    private static final Object RESET = new Object();
+    private static final Object HEARTBEAT = new Object();
+    
+    private final Entry[] ring;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    
+    // Event ids restart with the process; the boot id tells a stale Last-Event-ID from a current one
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private long nextSequence = 1;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AfterCommitCollector<ChangeEvent> pending = new AfterCommitCollector<>(this::publish);
+    
+    public ChangeFeed(@Value("${courier.events.buffer-size:1024}") int bufferSize,
+                      @Value("${courier.events.client-queue-size:256}") int queueCapacity,
+                      @Value("${courier.events.timeout-ms:1800000}") long timeoutMillis,
+                      @Value("${courier.events.sender-threads:4}") int senderThreads) {
+        this.ring = new Entry[bufferSize];
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // Queues the event for subscribers once the current transaction commits
+    public void publishAfterCommit(ChangeEvent event) {
+        pending.add(event);
+    }
+    
+    // lastEventId may be null for a fresh subscription
+    public SseEmitter subscribe(Predicate<ChangeEvent> filter, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, filter, queueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        
+        synchronized (this) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        
+        schedule(subscriber);
+        return emitter;
+    }
+    
+    // Keeps idle connections open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${courier.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+    
+    private void publish(Set<ChangeEvent> events) {
+        synchronized (this) {
+            for (ChangeEvent event : events) {
+                long sequence = nextSequence++;
+                Entry entry = new Entry(bootId + "-" + sequence, event);
+                ring[(int) (sequence % ring.length)] = entry;
+                
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.filter.test(event) && !subscriber.queue.offer(entry)) {
+                        // Too far behind; drop the client and let it resume from the ring buffer
+                        subscribers.remove(subscriber);
+                        sender.execute(subscriber.emitter::complete);
+                    }
+                }
+            }
+        }
+        
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+    
+    // Called under the feed lock so no event can slip between the replay and the live subscription
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long oldest = Math.max(1, nextSequence - ring.length);
+        Long after = parseSequence(lastEventId);
+        if (after == null || after + 1 < oldest || after >= nextSequence) {
+            // Unknown or too old: the client has to reload its lists
+            subscriber.queue.offer(RESET);
+            return;
+        }
+        
+        for (long sequence = after + 1; sequence < nextSequence; sequence++) {
+            Entry entry = ring[(int) (sequence % ring.length)];
+            if (subscriber.filter.test(entry.event) && !subscriber.queue.offer(entry)) {
+                subscriber.queue.clear();
+                subscriber.queue.offer(RESET);
+                return;
+            }
+        }
+    }
+    
+    private Long parseSequence(String eventId) {
+        int dash = eventId.indexOf('-');
+        if (dash < 0 || !bootId.equals(eventId.substring(0, dash))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            Object item;
+            while ((item = subscriber.queue.poll()) != null) {
+                if (item == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (item == RESET) {
+                    subscriber.emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    Entry entry = (Entry) item;
+                    subscriber.emitter.send(SseEmitter.event().id(entry.id).data(entry.event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+        } finally {
+            subscriber.draining.set(false);
+        }
+        
+        // An event may have arrived after the last poll but before draining was cleared
+        if (subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+    
+    private static final class Entry {
+        final String id;
+        final ChangeEvent event;
+        
+        Entry(String id, ChangeEvent event) {
+            this.id = id;
+            this.event = event;
+        }
+    }
+    
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Predicate<ChangeEvent> filter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        
+        Subscriber(SseEmitter emitter, Predicate<ChangeEvent> filter, int capacity) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.courier.service;
+
+import com.courier.cache.DtoCache;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.TruckDTO;
+import com.courier.repository.ConsignmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Hot/cold tiering of delivered consignments. Rows delivered more than min-age-days ago move in small
+// chunks from consignments into consignments_archive, which is range partitioned by delivery month
+// (see create-consignment-archive.sql), so the hot table and its indexes only hold active work.
+// Archived rows are read-only: by-id reads fall back to the archive, and a ticket raised against an
+// archived consignment moves it back first.
+@Component
+public class ConsignmentArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsignmentArchive.class);
+    
+    @Autowired
+    private ConsignmentRepository consignmentRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private FleetIndex fleetIndex;
+    
+    @Autowired
+    private DtoCache<TruckDTO> truckCache;
+    
+    @Value("${courier.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${courier.archive.interval-ms:60000}")
+    private long intervalMillis;
+    
+    @Value("${courier.archive.min-age-days:30}")
+    private long minAgeDays;
+    
+    @Value("${courier.archive.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${courier.archive.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+    
+    // Partitions this instance has already created; creating one locks the archive table
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService mover;
+    private final Counter moved;
+    
+    public ConsignmentArchive(MeterRegistry registry) {
+        this.mover = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "consignment-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.moved = registry.counter("courier.archive.moved");
+    }
+    
+    // A round can run for minutes on a large backlog, so it has a thread of its own instead of holding
+    // one of the shared scheduler threads the heartbeats, the outbox and the health checks run on
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            mover.scheduleWithFixedDelay(this::archiveDelivered, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        mover.shutdownNow();
+    }
+    
+    public Optional<ConsignmentDTO> findDtoById(String id) {
+        return enabled ? consignmentRepository.findArchivedDtoById(id) : Optional.empty();
+    }
+    
+    // Must run inside the caller's transaction; returns false when the id is not archived
+    public boolean restore(String id) {
+        return enabled && consignmentRepository.restoreArchived(id);
+    }
+    
+    // Each chunk is its own short transaction so locks and WAL stay small; a run is capped so a
+    // large backlog drains over several rounds
+    public void archiveDelivered() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+            LocalDateTime oldest = consignmentRepository.findOldestArchivable(cutoff);
+            if (oldest == null) {
+                return;
+            }
+            ensurePartitions(YearMonth.from(oldest), YearMonth.from(cutoff));
+            
+            int chunks = 0;
+            int count;
+            do {
+                count = archiveChunk(cutoff);
+                chunks++;
+            } while (count == chunkSize && chunks < maxChunksPerRun);
+        } catch (RuntimeException e) {
+            log.warn("Archiving delivered consignments failed; retrying next round", e);
+        }
+    }
+    
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<String> truckIds = transactionTemplate.execute(status -> {
+            List<String> movedTruckIds = consignmentRepository.archiveDelivered(cutoff, chunkSize);
+            // Delivery normally releases the truck; one still pointing at an archived row loses it
+            movedTruckIds.stream().filter(Objects::nonNull).distinct().forEach(truckId -> {
+                fleetIndex.refreshAfterCommit(truckId);
+                truckCache.invalidateAfterCommit(truckId);
+            });
+            return movedTruckIds;
+        });
+        moved.increment(truckIds.size());
+        return truckIds.size();
+    }
+    
+    private void ensurePartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!partitions.contains(month)) {
+                consignmentRepository.createArchivePartition(month);
+                partitions.add(month);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.courier.service;
+
+import com.courier.dto.BatchResult;
+import com.courier.dto.ChangeEvent;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.model.Consignment;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ConsignmentIngestService {
+
+    private static final String INSERT_SQL = "INSERT INTO consignments "
+            + "(id, customer, type, weight, weight_kg, destination, status, date, contact, email, version, "
+            + "created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    
+    @Autowired
+    private ConsignmentService consignmentService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private DailyRollups dailyRollups;
+    
+    @Value("${courier.ingest.chunk-size:500}")
+    private int chunkSize;
+    
+    // Reads a JSON array element by element; each element is bound on its own so a bad row
+    // only rejects itself
+    public BatchResult ingestJsonArray(InputStream body) throws IOException {
+        BatchResult result = new BatchResult();
+        Chunk chunk = new Chunk(result);
+        int index = 0;
+        
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of consignments");
+            }
+            
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    result.addFailure(index++, null, "rejected", "Expected a JSON object");
+                    continue;
+                }
+                
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    chunk.add(index, objectMapper.treeToValue(node, ConsignmentDTO.class));
+                } catch (JsonProcessingException e) {
+                    result.addFailure(index, null, "rejected", e.getOriginalMessage());
+                }
+                index++;
+            }
+        } catch (JsonProcessingException e) {
+            // The rest of the stream cannot be resynchronised; keep what was already accepted
+            result.addFailure(index, null, "rejected", "Malformed JSON: " + e.getOriginalMessage());
+        }
+        
+        chunk.flush();
+        result.sortByIndex();
+        return result;
+    }
+    
+    // Reads newline-delimited JSON; a malformed line only rejects that line
+    public BatchResult ingestNdjson(InputStream body) throws IOException {
+        BatchResult result = new BatchResult();
+        Chunk chunk = new Chunk(result);
+        int index = 0;
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            
+            try {
+                chunk.add(index, objectMapper.readValue(line, ConsignmentDTO.class));
+            } catch (JsonProcessingException e) {
+                result.addFailure(index, null, "rejected", e.getOriginalMessage());
+            }
+            index++;
+        }
+        
+        chunk.flush();
+        result.sortByIndex();
+        return result;
+    }
+    
+    private String validate(ConsignmentDTO consignmentDTO) {
+        if (isBlank(consignmentDTO.getCustomer())) {
+            return "customer is required";
+        }
+        if (isBlank(consignmentDTO.getType())) {
+            return "type is required";
+        }
+        if (isBlank(consignmentDTO.getWeight())) {
+            return "weight is required";
+        }
+        if (isBlank(consignmentDTO.getDestination())) {
+            return "destination is required";
+        }
+        if (consignmentDTO.getEmail() != null && !consignmentDTO.getEmail().contains("@")) {
+            return "email is invalid";
+        }
+        return null;
+    }
+    
+    private void recordCreated(Consignment consignment) {
+        dailyRollups.created(consignment);
+        changeFeed.publishAfterCommit(ChangeEvent.consignment("created", consignment.getId(), consignment.getStatus(), null));
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    private static void bind(PreparedStatement ps, Consignment consignment) throws SQLException {
+        ps.setString(1, consignment.getId());
+        ps.setString(2, consignment.getCustomer());
+        ps.setString(3, consignment.getType());
+        ps.setString(4, consignment.getWeight());
+        ps.setObject(5, consignment.getWeightKg(), Types.DOUBLE);
+        ps.setString(6, consignment.getDestination());
+        ps.setString(7, consignment.getStatus());
+        ps.setObject(8, consignment.getDate());
+        ps.setString(9, consignment.getContact());
+        ps.setString(10, consignment.getEmail());
+        ps.setObject(11, consignment.getCreatedAt());
+        ps.setObject(12, consignment.getUpdatedAt());
+    }
+    
+    // Accumulates validated rows and writes them as one JDBC batch per transaction. Rejected rows are
+    // recorded at once and accepted ones when their chunk is written, so callers sort the finished
+    // result back into input order.
+    private class Chunk {
+        private final BatchResult result;
+        private final List<Consignment> rows = new ArrayList<>();
+        private final List<Integer> indexes = new ArrayList<>();
+        
+        Chunk(BatchResult result) {
+            this.result = result;
+        }
+        
+        void add(int index, ConsignmentDTO consignmentDTO) {
+            String error = validate(consignmentDTO);
+            if (error != null) {
+                result.addFailure(index, null, "rejected", error);
+                return;
+            }
+            
+            try {
+                rows.add(consignmentService.newConsignment(consignmentDTO));
+            } catch (IllegalArgumentException e) {
+                // Weight carries a unit we cannot normalize
+                result.addFailure(index, null, "rejected", e.getMessage());
+                return;
+            }
+            indexes.add(index);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), ConsignmentIngestService::bind);
+                    rows.forEach(consignment -> recordCreated(consignment));
+                });
+                for (int i = 0; i < rows.size(); i++) {
+                    result.addSuccess(indexes.get(i), rows.get(i).getId(), "created");
+                }
+            } catch (DataAccessException e) {
+                // A constraint violation aborts the whole batch; retry row by row to isolate it
+                for (int i = 0; i < rows.size(); i++) {
+                    insertSingle(indexes.get(i), rows.get(i));
+                }
+            }
+            
+            rows.clear();
+            indexes.clear();
+        }
+        
+        private void insertSingle(int index, Consignment consignment) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, consignment));
+                    recordCreated(consignment);
+                });
+                result.addSuccess(index, consignment.getId(), "created");
+            } catch (DataAccessException e) {
+                result.addFailure(index, consignment.getId(), "failed", e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
@@ -1,59 +1,259 @@
 package com.courier.service;
 
+import com.courier.cache.DtoCache;
+import com.courier.dto.BatchResult;
+import com.courier.dto.ChangeEvent;
 import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageCursor;
+import com.courier.dto.PageResponse;
+import com.courier.dto.SearchCursor;
+import com.courier.dto.TruckDTO;
+import com.courier.id.IdGenerator;
+import com.courier.id.IdGeneratorConfig;
+import com.courier.metrics.AllocationMetrics;
 import com.courier.model.Consignment;
 import com.courier.model.Truck;
+import com.courier.notification.Notification;
+import com.courier.notification.NotificationOutbox;
+import com.courier.repository.ConsignmentFilter;
 import com.courier.repository.ConsignmentRepository;
+import com.courier.repository.ConsignmentSearchHit;
 import com.courier.repository.TruckRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ConsignmentService {
 
+    // Trigrams need a couple of characters to be selective
+    private static final int MIN_SEARCH_LENGTH = 2;
+    private static final int MAX_SEARCH_LENGTH = 100;
+    
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "customer", "type", "weight", "destination", "status", "date", "contact", "email", "truckId");
+    
     @Autowired
     private ConsignmentRepository consignmentRepository;
     
     @Autowired
     private TruckRepository truckRepository;
     
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private FleetIndex fleetIndex;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private DtoCache<ConsignmentDTO> consignmentCache;
+    
+    @Autowired
+    private DtoCache<TruckDTO> truckCache;
+    
+    @Autowired
+    private AllocationMetrics allocationMetrics;
+    
+    @Autowired
+    private DailyRollups dailyRollups;
+    
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+    
+    @Autowired
+    private ConsignmentArchive consignmentArchive;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    @Qualifier(IdGeneratorConfig.CONSIGNMENT_ID_GENERATOR)
+    private IdGenerator idGenerator;
+    
+    @Value("${courier.pagination.default-page-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${courier.pagination.max-page-size:1000}")
+    private int maxPageSize;
+    
+    @Value("${courier.bulk.max-ids:1000}")
+    private int maxBulkIds;
+    
+    @Value("${courier.search.max-page-size:100}")
+    private int maxSearchPageSize;
+    
+    @Transactional(readOnly = true)
     public List<ConsignmentDTO> getAllConsignments() {
-        return consignmentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        try (Stream<ConsignmentDTO> consignments = consignmentRepository.streamByStatus(null)) {
+            return consignments.collect(Collectors.toList());
+        }
     }
     
+    @Transactional(readOnly = true)
     public List<ConsignmentDTO> getConsignmentsByStatus(String status) {
-        return consignmentRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        try (Stream<ConsignmentDTO> consignments = consignmentRepository.streamByStatus(status)) {
+            return consignments.collect(Collectors.toList());
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<ConsignmentDTO> getConsignmentPage(String status, Double minWeightKg, Double maxWeightKg,
+                                                           LocalDate from, LocalDate to,
+                                                           String cursor, Integer limit) {
+        ConsignmentFilter filter = pageFilter(status, minWeightKg, maxWeightKg, from, to);
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+        int pageSize = resolvePageSize(limit);
+        
+        // Read one extra row to learn whether another page follows
+        List<ConsignmentDTO> rows = consignmentRepository.findPage(filter, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ConsignmentDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            ConsignmentDTO last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return new PageResponse<>(page, nextCursor);
+    }
+    
+    // Tags the page getConsignmentPage would return (see EntityTags.ofConsignments) from the
+    // (id, version, updatedAt, createdAt) of the same rows, without reading the rows themselves
+    @Transactional(readOnly = true)
+    public String getConsignmentPageTag(String status, Double minWeightKg, Double maxWeightKg,
+                                        LocalDate from, LocalDate to,
+                                        String cursor, Integer limit) {
+        ConsignmentFilter filter = pageFilter(status, minWeightKg, maxWeightKg, from, to);
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+        int pageSize = resolvePageSize(limit);
+        
+        List<Object[]> rows = consignmentRepository.findPageVersions(filter, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Object[]> page = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = page.get(page.size() - 1);
+            nextCursor = new PageCursor((LocalDateTime) last[3], (String) last[0]).encode();
+        }
+        
+        return EntityTags.page(Stream.concat(
+                page.stream().map(row -> EntityTags.consignment((String) row[0], (Long) row[1], (LocalDateTime) row[2])),
+                Stream.ofNullable(nextCursor)));
+    }
+    
+    private ConsignmentFilter pageFilter(String status, Double minWeightKg, Double maxWeightKg,
+                                         LocalDate from, LocalDate to) {
+        if (minWeightKg != null && maxWeightKg != null && minWeightKg > maxWeightKg) {
+            throw new IllegalArgumentException("minWeightKg must not exceed maxWeightKg");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        
+        return new ConsignmentFilter(status, minWeightKg, maxWeightKg, from, to);
+    }
+    
+    // Ranked prefix/fuzzy search over id, customer, destination, email and contact
+    @Transactional(readOnly = true)
+    public PageResponse<ConsignmentDTO> searchConsignments(String query, String status, String cursor, Integer limit) {
+        String normalized = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        if (normalized.length() < MIN_SEARCH_LENGTH || normalized.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Search text must be " + MIN_SEARCH_LENGTH + " to " + MAX_SEARCH_LENGTH + " characters");
+        }
+        
+        SearchCursor after = cursor != null ? SearchCursor.decode(cursor) : null;
+        int pageSize = Math.min(resolvePageSize(limit), maxSearchPageSize);
+        
+        // Read one extra row to learn whether another page follows
+        List<ConsignmentSearchHit> hits = consignmentRepository.search(normalized, status, after, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        List<ConsignmentSearchHit> page = hasMore ? hits.subList(0, pageSize) : hits;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            ConsignmentSearchHit last = page.get(page.size() - 1);
+            nextCursor = new SearchCursor(last.getScore(), last.getConsignment().getId()).encode();
+        }
+        
+        return new PageResponse<>(
+                page.stream().map(ConsignmentSearchHit::getConsignment).collect(Collectors.toList()), nextCursor);
     }
     
+    @Transactional(readOnly = true)
+    public void streamConsignments(String status, JsonGenerator generator) throws IOException {
+        try (Stream<ConsignmentDTO> consignments = consignmentRepository.streamByStatus(status)) {
+            generator.writeStartArray();
+            
+            Iterator<ConsignmentDTO> iterator = consignments.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            
+            generator.writeEndArray();
+        }
+    }
+    
+    // Served from the DTO cache; only a miss reaches the database, and the archive after that
     public ConsignmentDTO getConsignmentById(String id) {
-        Optional<Consignment> consignment = consignmentRepository.findById(id);
-        return consignment.map(this::convertToDTO).orElse(null);
+        return consignmentCache.get(id, key -> consignmentRepository.findDtoById(key)
+                .or(() -> consignmentArchive.findDtoById(key))
+                .orElse(null));
     }
     
     @Transactional
     public ConsignmentDTO createConsignment(ConsignmentDTO consignmentDTO) {
+        Consignment consignment = newConsignment(consignmentDTO);
+        
+        // Save to database
+        Consignment savedConsignment = consignmentRepository.save(consignment);
+        dailyRollups.created(savedConsignment);
+        changeFeed.publishAfterCommit(ChangeEvent.consignment("created", savedConsignment.getId(), "pending", null));
+        
+        return convertToDTO(savedConsignment);
+    }
+    
+    // Builds a new pending consignment with generated id, default date and timestamps;
+    // shared by single creates and batch ingest
+    public Consignment newConsignment(ConsignmentDTO consignmentDTO) {
         Consignment consignment = new Consignment();
         
         // Generate a unique ID
-        String id = "CCM" + new Random().nextInt(10000000);
+        String id = idGenerator.nextId();
         consignment.setId(id);
         
         // Set current date if not provided
         if (consignmentDTO.getDate() == null) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-            consignment.setDate(LocalDateTime.now().format(formatter));
+            consignment.setDate(LocalDate.now());
         } else {
             consignment.setDate(consignmentDTO.getDate());
         }
@@ -65,6 +265,7 @@ public class ConsignmentService {
         consignment.setCustomer(consignmentDTO.getCustomer());
         consignment.setType(consignmentDTO.getType());
         consignment.setWeight(consignmentDTO.getWeight());
+        consignment.setWeightKg(Kilograms.parse(consignmentDTO.getWeight()));
         consignment.setDestination(consignmentDTO.getDestination());
         consignment.setContact(consignmentDTO.getContact());
         consignment.setEmail(consignmentDTO.getEmail());
@@ -74,18 +275,17 @@ public class ConsignmentService {
         consignment.setCreatedAt(now);
         consignment.setUpdatedAt(now);
         
-        // Save to database
-        Consignment savedConsignment = consignmentRepository.save(consignment);
-        
-        return convertToDTO(savedConsignment);
+        return consignment;
     }
     
     @Transactional
-    public ConsignmentDTO updateConsignment(String id, ConsignmentDTO consignmentDTO) {
+    public ConsignmentDTO updateConsignment(String id, ConsignmentDTO consignmentDTO, String ifMatch) {
         Optional<Consignment> optionalConsignment = consignmentRepository.findById(id);
         
         if (optionalConsignment.isPresent()) {
             Consignment consignment = optionalConsignment.get();
+            checkPrecondition(consignment, ifMatch);
+            DailyRollups.Contribution before = DailyRollups.capture(consignment);
             
             // Update fields
             if (consignmentDTO.getCustomer() != null) {
@@ -96,6 +296,7 @@ public class ConsignmentService {
             }
             if (consignmentDTO.getWeight() != null) {
                 consignment.setWeight(consignmentDTO.getWeight());
+                consignment.setWeightKg(Kilograms.parse(consignmentDTO.getWeight()));
             }
             if (consignmentDTO.getDestination() != null) {
                 consignment.setDestination(consignmentDTO.getDestination());
@@ -110,10 +311,18 @@ public class ConsignmentService {
                 consignment.setEmail(consignmentDTO.getEmail());
             }
             
-            // Update truck if provided
+            // Update truck if provided; both the old and the new truck change their assignment
             if (consignmentDTO.getTruckId() != null) {
                 Optional<Truck> optionalTruck = truckRepository.findById(consignmentDTO.getTruckId());
-                optionalTruck.ifPresent(consignment::setTruck);
+                if (optionalTruck.isPresent()) {
+                    if (consignment.getTruck() != null) {
+                        fleetIndex.refreshAfterCommit(consignment.getTruck().getId());
+                        truckCache.invalidateAfterCommit(consignment.getTruck().getId());
+                    }
+                    consignment.setTruck(optionalTruck.get());
+                    fleetIndex.refreshAfterCommit(optionalTruck.get().getId());
+                    truckCache.invalidateAfterCommit(optionalTruck.get().getId());
+                }
             }
             
             // Update timestamp
@@ -121,86 +330,301 @@ public class ConsignmentService {
             
             // Save to database
             Consignment updatedConsignment = consignmentRepository.save(consignment);
+            dailyRollups.changed(before, updatedConsignment);
+            consignmentCache.invalidateAfterCommit(id);
+            ConsignmentDTO dto = convertToDTO(updatedConsignment);
+            changeFeed.publishAfterCommit(ChangeEvent.consignment("updated", id, dto.getStatus(), dto.getTruckId()));
             
-            return convertToDTO(updatedConsignment);
+            return dto;
         }
         
         return null;
     }
     
+    // Applies a JSON merge patch. Only the columns whose values change are written (@DynamicUpdate);
+    // a patch that changes nothing issues no UPDATE and keeps updatedAt.
+    @Transactional
+    public ConsignmentDTO patchConsignment(String id, JsonNode patch, String ifMatch) {
+        MergePatch<ConsignmentDTO> mergePatch = MergePatch.read(objectMapper, patch, ConsignmentDTO.class, PATCHABLE_FIELDS);
+        Optional<Consignment> optionalConsignment = consignmentRepository.findById(id);
+        
+        if (optionalConsignment.isEmpty()) {
+            return null;
+        }
+        
+        Consignment consignment = optionalConsignment.get();
+        checkPrecondition(consignment, ifMatch);
+        DailyRollups.Contribution before = DailyRollups.capture(consignment);
+        
+        mergePatch.require("customer", consignment.getCustomer(), ConsignmentDTO::getCustomer, consignment::setCustomer);
+        mergePatch.require("type", consignment.getType(), ConsignmentDTO::getType, consignment::setType);
+        if (mergePatch.require("weight", consignment.getWeight(), ConsignmentDTO::getWeight, consignment::setWeight)) {
+            consignment.setWeightKg(Kilograms.parse(consignment.getWeight()));
+        }
+        mergePatch.require("destination", consignment.getDestination(), ConsignmentDTO::getDestination, consignment::setDestination);
+        mergePatch.require("status", consignment.getStatus(), ConsignmentDTO::getStatus, consignment::setStatus);
+        mergePatch.set("date", consignment.getDate(), ConsignmentDTO::getDate, consignment::setDate);
+        mergePatch.set("contact", consignment.getContact(), ConsignmentDTO::getContact, consignment::setContact);
+        mergePatch.set("email", consignment.getEmail(), ConsignmentDTO::getEmail, consignment::setEmail);
+        
+        // null unassigns the truck; both the old and the new truck change their assignment
+        String previousTruckId = consignment.getTruck() != null ? consignment.getTruck().getId() : null;
+        String truckId = mergePatch.values().getTruckId();
+        if (mergePatch.has("truckId") && !Objects.equals(previousTruckId, truckId)) {
+            if (truckId != null && !truckRepository.existsById(truckId)) {
+                throw new IllegalArgumentException("Unknown truck: " + truckId);
+            }
+            consignment.setTruck(truckId != null ? truckRepository.getReferenceById(truckId) : null);
+            mergePatch.markChanged();
+            for (String touchedTruckId : new String[] {previousTruckId, truckId}) {
+                if (touchedTruckId != null) {
+                    fleetIndex.refreshAfterCommit(touchedTruckId);
+                    truckCache.invalidateAfterCommit(touchedTruckId);
+                }
+            }
+        }
+        
+        if (!mergePatch.isChanged()) {
+            return convertToDTO(consignment);
+        }
+        
+        // Flushed by dirty checking on commit
+        consignment.setUpdatedAt(LocalDateTime.now());
+        dailyRollups.changed(before, consignment);
+        consignmentCache.invalidateAfterCommit(id);
+        ConsignmentDTO dto = convertToDTO(consignment);
+        changeFeed.publishAfterCommit(ChangeEvent.consignment("updated", id, dto.getStatus(), dto.getTruckId()));
+        
+        return dto;
+    }
+    
     @Transactional
     public boolean deleteConsignment(String id) {
-        if (consignmentRepository.existsById(id)) {
-            consignmentRepository.deleteById(id);
+        Optional<Consignment> optionalConsignment = consignmentRepository.findById(id);
+        
+        if (optionalConsignment.isPresent()) {
+            Consignment consignment = optionalConsignment.get();
+            String truckId = consignment.getTruck() != null ? consignment.getTruck().getId() : null;
+            if (truckId != null) {
+                fleetIndex.refreshAfterCommit(truckId);
+                truckCache.invalidateAfterCommit(truckId);
+            }
+            consignmentRepository.delete(consignment);
+            dailyRollups.deleted(consignment);
+            consignmentCache.invalidateAfterCommit(id);
+            changeFeed.publishAfterCommit(ChangeEvent.consignment("deleted", id, null, truckId));
             return true;
         }
         return false;
     }
     
-    @Transactional
     public ConsignmentDTO allocateTruck(String consignmentId, String truckId) {
-        Optional<Consignment> optionalConsignment = consignmentRepository.findById(consignmentId);
-        Optional<Truck> optionalTruck = truckRepository.findById(truckId);
-        
-        if (optionalConsignment.isPresent() && optionalTruck.isPresent()) {
-            Consignment consignment = optionalConsignment.get();
-            Truck truck = optionalTruck.get();
+        return allocationMetrics.record("manual", () -> optimisticRetry.execute(status -> {
+            Optional<Consignment> optionalConsignment = consignmentRepository.findById(consignmentId);
             
-            // Check if truck is available
-            if (!"available".equals(truck.getStatus())) {
-                throw new IllegalStateException("Truck is not available");
+            if (optionalConsignment.isPresent() && truckRepository.existsById(truckId)) {
+                Consignment consignment = optionalConsignment.get();
+                
+                // Check if consignment is still waiting for a truck
+                if (!"pending".equals(consignment.getStatus())) {
+                    throw new IllegalStateException("Consignment is not pending");
+                }
+                
+                // Claim the truck; fails cleanly if another dispatcher got there first
+                if (!claimTruck(consignment, truckId)) {
+                    throw new TruckClaimedException(truckId);
+                }
+                
+                // Save consignment; a concurrent change to it fails the version check and retries
+                Consignment updatedConsignment = consignmentRepository.save(consignment);
+                
+                return convertToDTO(updatedConsignment);
             }
             
-            // Update consignment
-            consignment.setStatus("in-transit");
-            consignment.setTruck(truck);
-            consignment.setUpdatedAt(LocalDateTime.now());
-            
-            // Update truck
-            truck.setStatus("in-transit");
-            truck.setAssignedConsignment(consignment);
-            truck.setUpdatedAt(LocalDateTime.now());
+            return null;
+        }));
+    }
+    
+    public ConsignmentDTO allocateAnyTruck(String consignmentId) {
+        return allocationMetrics.record("any", () -> optimisticRetry.execute(status -> {
+            Optional<Consignment> optionalConsignment = consignmentRepository.findById(consignmentId);
             
-            // Save both entities
-            consignmentRepository.save(consignment);
-            truckRepository.save(truck);
+            if (optionalConsignment.isPresent()) {
+                Consignment consignment = optionalConsignment.get();
+                
+                // Check if consignment is still waiting for a truck
+                if (!"pending".equals(consignment.getStatus())) {
+                    throw new IllegalStateException("Consignment is not pending");
+                }
+                
+                // Lock a free truck, skipping the ones other dispatchers hold right now
+                String truckId = truckRepository.lockNextAvailableId()
+                        .orElseThrow(() -> new IllegalStateException("No truck is available"));
+                
+                // Not expected while the row lock is held, but never pair with a truck we did not claim;
+                // unlike a manual claim this one is retried, and the retry locks another truck
+                if (!claimTruck(consignment, truckId)) {
+                    throw new ConcurrencyFailureException("Truck " + truckId + " was claimed while locked");
+                }
+                
+                Consignment updatedConsignment = consignmentRepository.save(consignment);
+                
+                return convertToDTO(updatedConsignment);
+            }
             
-            return convertToDTO(consignment);
-        }
-        
-        return null;
+            return null;
+        }));
     }
     
-    @Transactional
     public ConsignmentDTO markAsDelivered(String consignmentId) {
-        Optional<Consignment> optionalConsignment = consignmentRepository.findById(consignmentId);
-        
-        if (optionalConsignment.isPresent()) {
-            Consignment consignment = optionalConsignment.get();
+        return optimisticRetry.execute(status -> {
+            Optional<Consignment> optionalConsignment = consignmentRepository.findById(consignmentId);
             
-            // Get the truck before updating consignment
-            Truck truck = consignment.getTruck();
+            if (optionalConsignment.isPresent()) {
+                Consignment consignment = optionalConsignment.get();
+                
+                // A repeated call (e.g. a client retry) changes nothing and notifies nobody again,
+                // like the "unchanged" outcome of deliverAll
+                if ("delivered".equals(consignment.getStatus()) && consignment.getTruck() == null) {
+                    return convertToDTO(consignment);
+                }
+                
+                // Get the truck before updating consignment
+                Truck truck = consignment.getTruck();
+                DailyRollups.Contribution before = DailyRollups.capture(consignment);
+                
+                // Update consignment
+                consignment.setStatus("delivered");
+                consignment.setTruck(null);
+                consignment.setUpdatedAt(LocalDateTime.now());
+                dailyRollups.changed(before, consignment);
+                
+                // Update truck if assigned
+                if (truck != null) {
+                    truck.setStatus("available");
+                    truck.setUpdatedAt(LocalDateTime.now());
+                    truckRepository.save(truck);
+                    fleetIndex.refreshAfterCommit(truck.getId());
+                    truckCache.invalidateAfterCommit(truck.getId());
+                    changeFeed.publishAfterCommit(ChangeEvent.truck("released", truck.getId(), "available"));
+                }
+                consignmentCache.invalidateAfterCommit(consignmentId);
+                changeFeed.publishAfterCommit(ChangeEvent.consignment(
+                        "delivered", consignmentId, "delivered", truck != null ? truck.getId() : null));
+                notificationOutbox.consignmentEvent(
+                        Notification.DELIVERED, consignment, truck != null ? truck.getId() : null);
+                
+                // Save consignment; both rows are version checked on flush
+                Consignment updatedConsignment = consignmentRepository.save(consignment);
+                
+                return convertToDTO(updatedConsignment);
+            }
             
-            // Update consignment
-            consignment.setStatus("delivered");
-            consignment.setTruck(null);
-            consignment.setUpdatedAt(LocalDateTime.now());
+            return null;
+        });
+    }
+    
+    // markAsDelivered for many consignments in one transaction and a fixed number of statements:
+    // lock the consignments, lock their trucks, then one UPDATE per table. Consignments already
+    // delivered without a truck are left untouched.
+    public BatchResult deliverAll(List<String> ids) {
+        List<String> distinctIds = BulkIds.distinct(ids, maxBulkIds);
+        
+        return optimisticRetry.execute(status -> {
+            Map<String, Consignment> consignments = consignmentRepository.lockAllById(distinctIds).stream()
+                    .collect(Collectors.toMap(Consignment::getId, Function.identity()));
             
-            // Update truck if assigned
-            if (truck != null) {
-                truck.setStatus("available");
-                truck.setAssignedConsignment(null);
-                truck.setUpdatedAt(LocalDateTime.now());
-                truckRepository.save(truck);
+            List<String> toDeliver = new ArrayList<>();
+            Set<String> toRelease = new TreeSet<>();
+            for (Consignment consignment : consignments.values()) {
+                String truckId = consignment.getTruck() != null ? consignment.getTruck().getId() : null;
+                if ("delivered".equals(consignment.getStatus()) && truckId == null) {
+                    continue;
+                }
+                
+                toDeliver.add(consignment.getId());
+                if (truckId != null) {
+                    toRelease.add(truckId);
+                }
+                dailyRollups.statusChanged(DailyRollups.capture(consignment), "delivered");
+                consignmentCache.invalidateAfterCommit(consignment.getId());
+                changeFeed.publishAfterCommit(ChangeEvent.consignment("delivered", consignment.getId(), "delivered", truckId));
+                notificationOutbox.consignmentEvent(Notification.DELIVERED, consignment, truckId);
             }
             
-            // Save consignment
-            Consignment updatedConsignment = consignmentRepository.save(consignment);
+            LocalDateTime now = LocalDateTime.now();
+            if (!toRelease.isEmpty()) {
+                truckRepository.lockAllById(toRelease);
+                truckRepository.markAllAvailable(toRelease, now);
+                for (String truckId : toRelease) {
+                    fleetIndex.refreshAfterCommit(truckId);
+                    truckCache.invalidateAfterCommit(truckId);
+                    changeFeed.publishAfterCommit(ChangeEvent.truck("released", truckId, "available"));
+                }
+            }
+            if (!toDeliver.isEmpty()) {
+                consignmentRepository.markAllDelivered(toDeliver, now);
+            }
             
-            return convertToDTO(updatedConsignment);
+            Set<String> delivered = new HashSet<>(toDeliver);
+            BatchResult result = new BatchResult();
+            Set<String> reported = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                if (!reported.add(id)) {
+                    result.addFailure(i, id, "duplicate", "Id appears earlier in the request");
+                } else if (!consignments.containsKey(id)) {
+                    result.addFailure(i, id, "not_found", "Consignment not found");
+                } else {
+                    result.addSuccess(i, id, delivered.contains(id) ? "delivered" : "unchanged");
+                }
+            }
+            return result;
+        });
+    }
+    
+    // Moves the truck out of "available" with a conditional update and pairs it with the consignment;
+    // shared by manual and automatic allocation. Returns false if the truck was no longer available.
+    public boolean claimTruck(Consignment consignment, String truckId) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Update truck
+        if (truckRepository.claimIfAvailable(truckId, now) == 0) {
+            return false;
         }
         
-        return null;
+        // Update consignment
+        DailyRollups.Contribution before = DailyRollups.capture(consignment);
+        consignment.setStatus("in-transit");
+        consignment.setTruck(truckRepository.getReferenceById(truckId));
+        consignment.setUpdatedAt(now);
+        dailyRollups.changed(before, consignment);
+        fleetIndex.refreshAfterCommit(truckId);
+        truckCache.invalidateAfterCommit(truckId);
+        consignmentCache.invalidateAfterCommit(consignment.getId());
+        changeFeed.publishAfterCommit(ChangeEvent.consignment("allocated", consignment.getId(), "in-transit", truckId));
+        changeFeed.publishAfterCommit(ChangeEvent.truck("allocated", truckId, "in-transit"));
+        notificationOutbox.consignmentEvent(Notification.ALLOCATED, consignment, truckId);
+        
+        return true;
+    }
+    
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+    
+    // If-Match is checked against the row as loaded; the @Version check on flush covers a write that
+    // commits in between, so a stale tag can never overwrite a newer state
+    private void checkPrecondition(Consignment consignment, String ifMatch) {
+        if (ifMatch != null && !EntityTags.matches(ifMatch, EntityTags.of(convertToDTO(consignment)))) {
+            throw new OptimisticLockingFailureException("Consignment " + consignment.getId() + " has changed");
+        }
     }
     
     // Helper method to convert Entity to DTO
@@ -210,6 +634,7 @@ public class ConsignmentService {
         dto.setCustomer(consignment.getCustomer());
         dto.setType(consignment.getType());
         dto.setWeight(consignment.getWeight());
+        dto.setWeightKg(consignment.getWeightKg());
         dto.setDestination(consignment.getDestination());
         dto.setStatus(consignment.getStatus());
         dto.setDate(consignment.getDate());
@@ -217,6 +642,7 @@ public class ConsignmentService {
         dto.setEmail(consignment.getEmail());
         dto.setCreatedAt(consignment.getCreatedAt());
         dto.setUpdatedAt(consignment.getUpdatedAt());
+        dto.setVersion(consignment.getVersion());
         
         if (consignment.getTruck() != null) {
             dto.setTruckId(consignment.getTruck().getId());
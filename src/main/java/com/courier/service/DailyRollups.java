@@ -0,0 +1,115 @@
+package com.courier.service;
+
+import com.courier.model.Consignment;
+import com.courier.model.ConsignmentDailyRollup;
+import com.courier.repository.ConsignmentRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Keeps consignment_daily_rollups in step with consignment writes. Each write records the rows it
+// leaves and enters; the deltas are summed per transaction and upserted once just before commit,
+// so the rollups commit or roll back together with the consignments they describe.
+@Component
+public class DailyRollups {
+
+    @Autowired
+    private ConsignmentRollupRepository rollupRepository;
+    
+    @Value("${courier.rollups.enabled:true}")
+    private boolean enabled;
+    
+    // Snapshot of where a consignment counts before it is modified
+    public static Contribution capture(Consignment consignment) {
+        return new Contribution(ConsignmentDailyRollup.Key.of(consignment), consignment.getWeightKg());
+    }
+    
+    // For set-based updates that bypass the entity: the consignment now counts under the given status
+    public void statusChanged(Contribution before, String status) {
+        changed(before, new Contribution(before.key.withStatus(status), before.weightKg));
+    }
+    
+    public void created(Consignment consignment) {
+        add(capture(consignment), 1);
+    }
+    
+    public void deleted(Consignment consignment) {
+        add(capture(consignment), -1);
+    }
+    
+    // Moves the consignment from its captured row to the one it belongs to now, if either changed
+    public void changed(Contribution before, Consignment consignment) {
+        changed(before, capture(consignment));
+    }
+    
+    private void changed(Contribution before, Contribution after) {
+        if (before.key.equals(after.key) && Objects.equals(before.weightKg, after.weightKg)) {
+            return;
+        }
+        add(before, -1);
+        add(after, 1);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void add(Contribution contribution, int sign) {
+        if (!enabled) {
+            return;
+        }
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<ConsignmentDailyRollup.Key, ConsignmentDailyRollup> single = new TreeMap<>();
+            accumulate(single, contribution, sign);
+            rollupRepository.applyDeltas(single.values());
+            return;
+        }
+        
+        Map<ConsignmentDailyRollup.Key, ConsignmentDailyRollup> pending =
+                (Map<ConsignmentDailyRollup.Key, ConsignmentDailyRollup>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<ConsignmentDailyRollup.Key, ConsignmentDailyRollup> deltas = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Rows whose deltas cancelled out need no statement
+                    deltas.values().removeIf(row -> row.getConsignmentCount() == 0 && row.getWeightKg() == 0);
+                    if (!deltas.isEmpty()) {
+                        rollupRepository.applyDeltas(deltas.values());
+                    }
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DailyRollups.this);
+                }
+            });
+            pending = deltas;
+        }
+        accumulate(pending, contribution, sign);
+    }
+    
+    private static void accumulate(Map<ConsignmentDailyRollup.Key, ConsignmentDailyRollup> deltas,
+                                   Contribution contribution, int sign) {
+        ConsignmentDailyRollup row = deltas.computeIfAbsent(contribution.key, ConsignmentDailyRollup::new);
+        row.setConsignmentCount(row.getConsignmentCount() + sign);
+        if (contribution.weightKg != null) {
+            row.setWeightKg(row.getWeightKg() + sign * contribution.weightKg);
+        }
+    }
+    
+    public static final class Contribution {
+        private final ConsignmentDailyRollup.Key key;
+        private final Double weightKg;
+        
+        private Contribution(ConsignmentDailyRollup.Key key, Double weightKg) {
+            this.key = key;
+            this.weightKg = weightKg;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.courier.service;
+
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageResponse;
+import com.courier.dto.TruckDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+// Entity tags for conditional requests. An entity's tag is strong: the @Version column moves with every
+// JPA write and every bulk update, and updatedAt also catches rows edited outside the application.
+// A page gets a weak tag digested from the tags of its rows.
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+    
+    public static String of(ConsignmentDTO consignment) {
+        return consignment(consignment.getId(), consignment.getVersion(), consignment.getUpdatedAt());
+    }
+    
+    public static String consignment(String id, Long version, LocalDateTime updatedAt) {
+        return quote(id + "." + version + "." + micros(updatedAt));
+    }
+    
+    // The assigned consignment is read from the consignments table and can change without a truck write
+    public static String of(TruckDTO truck) {
+        String tag = truck.getId() + "." + truck.getVersion() + "." + micros(truck.getUpdatedAt());
+        return quote(truck.getAssignedConsignmentId() != null ? tag + "." + truck.getAssignedConsignmentId() : tag);
+    }
+    
+    // A page is tagged from its rows and its next cursor
+    public static String ofConsignments(PageResponse<ConsignmentDTO> page) {
+        return page(Stream.concat(page.getItems().stream().map(EntityTags::of), Stream.ofNullable(page.getNextCursor())));
+    }
+    
+    public static String ofTrucks(PageResponse<TruckDTO> page) {
+        return page(Stream.concat(page.getItems().stream().map(EntityTags::of), Stream.ofNullable(page.getNextCursor())));
+    }
+    
+    public static String page(Stream<String> rowTags) {
+        MessageDigest digest = sha256();
+        rowTags.forEach(tag -> {
+            digest.update(tag.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        });
+        return "W/" + quote(Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 12)));
+    }
+    
+    // If-Match uses the strong comparison, so weak tags never match; "*" matches any existing entity
+    public static boolean matches(String ifMatch, String current) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String micros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return "0";
+        }
+        long micros = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+    
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
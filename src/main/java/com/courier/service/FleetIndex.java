@@ -0,0 +1,271 @@
+package com.courier.service;
+
+import com.courier.datasource.ReadRouting;
+import com.courier.dto.PageCursor;
+import com.courier.dto.TruckDTO;
+import com.courier.repository.TruckFilter;
+import com.courier.repository.TruckRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// In-memory copy of the fleet for status/type/location lookups.
+// Readers work on an immutable snapshot: trucks sorted by (createdAt, id) plus one BitSet of
+// positions per status, type and location, so a query is a few word-wise ANDs with no locking.
+// Writers rebuild the snapshot after their transaction commits; fleet writes are rare next to reads.
+@Component
+public class FleetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetIndex.class);
+    
+    private static final Comparator<TruckDTO> ORDER = Comparator
+            .comparing(TruckDTO::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TruckDTO::getId);
+    
+    @Autowired
+    private TruckRepository truckRepository;
+    
+    private final TransactionTemplate readTemplate;
+    private final AfterCommitCollector<String> pendingRefreshes = new AfterCommitCollector<>(this::refresh);
+    
+    private volatile Snapshot snapshot;
+    
+    // Bumped on every applied change so a consistency check never overwrites newer state
+    private long generation;
+    
+    public FleetIndex(PlatformTransactionManager transactionManager) {
+        // Refreshes run after the writer's commit, so they need a transaction of their own
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+    }
+    
+    public boolean isReady() {
+        return snapshot != null;
+    }
+    
+    // Reloads the truck from the database once the current transaction commits
+    public void refreshAfterCommit(String truckId) {
+        pendingRefreshes.add(truckId);
+    }
+    
+    public List<TruckDTO> find(TruckFilter filter) {
+        Snapshot current = snapshot;
+        BitSet matches = current.match(filter);
+        
+        List<TruckDTO> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(current.trucks[i]);
+        }
+        return result;
+    }
+    
+    // Returns up to limit matching trucks positioned after the cursor, in keyset order
+    public List<TruckDTO> page(TruckFilter filter, PageCursor after, int limit) {
+        Snapshot current = snapshot;
+        BitSet matches = current.match(filter);
+        
+        int start = 0;
+        if (after != null) {
+            TruckDTO probe = new TruckDTO();
+            probe.setCreatedAt(after.getCreatedAt());
+            probe.setId(after.getId());
+            int position = Arrays.binarySearch(current.trucks, probe, ORDER);
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+        
+        List<TruckDTO> result = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        for (int i = matches.nextSetBit(start); i >= 0 && result.size() < limit; i = matches.nextSetBit(i + 1)) {
+            result.add(current.trucks[i]);
+        }
+        return result;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<TruckDTO> trucks = readAll();
+        synchronized (this) {
+            generation++;
+            snapshot = new Snapshot(trucks);
+        }
+        log.info("Fleet index loaded with {} trucks", trucks.size());
+    }
+    
+    // Compares the index with the database and rebuilds it if they drifted apart,
+    // e.g. after writes that bypassed the services
+    @Scheduled(fixedDelayString = "${courier.fleet-index.verify-interval-ms:60000}",
+            initialDelayString = "${courier.fleet-index.verify-interval-ms:60000}")
+    public void verify() {
+        if (!isReady()) {
+            return;
+        }
+        
+        long observed;
+        synchronized (this) {
+            observed = generation;
+        }
+        
+        List<TruckDTO> trucks = readAll();
+        Snapshot fresh = new Snapshot(trucks);
+        
+        synchronized (this) {
+            if (generation != observed) {
+                // A commit landed while we were reading; check again next round
+                return;
+            }
+            int drift = snapshot.diff(fresh);
+            if (drift > 0) {
+                log.warn("Fleet index drifted from the database on {} trucks; rebuilding", drift);
+                generation++;
+                snapshot = fresh;
+            }
+        }
+    }
+    
+    private void refresh(Set<String> truckIds) {
+        if (!isReady()) {
+            return;
+        }
+        
+        // From the primary: a replica may not have the commit that triggered the refresh yet
+        List<TruckDTO> fresh = ReadRouting.onPrimary(
+                () -> readTemplate.execute(status -> truckRepository.findDtosByIds(truckIds)));
+        
+        synchronized (this) {
+            Map<String, TruckDTO> byId = new HashMap<>(snapshot.byId);
+            byId.keySet().removeAll(truckIds);
+            for (TruckDTO truck : fresh) {
+                // Concurrent refreshes can finish out of order; never step back to an older row
+                TruckDTO existing = snapshot.byId.get(truck.getId());
+                boolean stale = existing != null && existing.getUpdatedAt() != null && truck.getUpdatedAt() != null
+                        && truck.getUpdatedAt().isBefore(existing.getUpdatedAt());
+                byId.put(truck.getId(), stale ? existing : truck);
+            }
+            generation++;
+            snapshot = new Snapshot(byId.values());
+        }
+    }
+    
+    private List<TruckDTO> readAll() {
+        return ReadRouting.onPrimary(() -> readTemplate.execute(status -> {
+            try (Stream<TruckDTO> trucks = truckRepository.streamByStatus(null)) {
+                return trucks.collect(Collectors.toList());
+            }
+        }));
+    }
+    
+    private static final class Snapshot {
+        final TruckDTO[] trucks;
+        final Map<String, TruckDTO> byId = new HashMap<>();
+        final Map<String, BitSet> byStatus = new HashMap<>();
+        final Map<String, BitSet> byType = new HashMap<>();
+        final Map<String, BitSet> byLocation = new HashMap<>();
+        
+        Snapshot(Collection<TruckDTO> source) {
+            trucks = source.toArray(new TruckDTO[0]);
+            Arrays.sort(trucks, ORDER);
+            
+            for (int i = 0; i < trucks.length; i++) {
+                TruckDTO truck = trucks[i];
+                byId.put(truck.getId(), truck);
+                mark(byStatus, truck.getStatus(), i);
+                mark(byType, truck.getType(), i);
+                mark(byLocation, truck.getLocation(), i);
+            }
+        }
+        
+        BitSet match(TruckFilter filter) {
+            BitSet result = new BitSet(trucks.length);
+            result.set(0, trucks.length);
+            narrow(result, byStatus, filter.getStatus());
+            narrow(result, byType, filter.getType());
+            narrow(result, byLocation, filter.getLocation());
+            
+            // Ranges cannot be bitmap-indexed; check the few remaining candidates directly
+            if (filter.getMinCapacityKg() != null || filter.getMaxCapacityKg() != null
+                    || filter.getFrom() != null || filter.getTo() != null) {
+                for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                    if (!inRange(trucks[i].getCapacityKg(), filter.getMinCapacityKg(), filter.getMaxCapacityKg())
+                            || !inRange(trucks[i].getLastMaintenance(), filter.getFrom(), filter.getTo())) {
+                        result.clear(i);
+                    }
+                }
+            }
+            return result;
+        }
+        
+        int diff(Snapshot other) {
+            int drift = 0;
+            for (TruckDTO truck : trucks) {
+                if (!same(truck, other.byId.get(truck.getId()))) {
+                    drift++;
+                }
+            }
+            for (TruckDTO truck : other.trucks) {
+                if (!byId.containsKey(truck.getId())) {
+                    drift++;
+                }
+            }
+            return drift;
+        }
+        
+        private static void mark(Map<String, BitSet> index, String key, int position) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> new BitSet()).set(position);
+            }
+        }
+        
+        private static void narrow(BitSet result, Map<String, BitSet> index, String key) {
+            if (key == null) {
+                return;
+            }
+            BitSet positions = index.get(key);
+            if (positions == null) {
+                result.clear();
+            } else {
+                result.and(positions);
+            }
+        }
+        
+        private static <T extends Comparable<? super T>> boolean inRange(T value, T min, T max) {
+            if (min == null && max == null) {
+                return true;
+            }
+            return value != null
+                    && (min == null || value.compareTo(min) >= 0)
+                    && (max == null || value.compareTo(max) <= 0);
+        }
+        
+        private static boolean same(TruckDTO a, TruckDTO b) {
+            return b != null
+                    && Objects.equals(a.getStatus(), b.getStatus())
+                    && Objects.equals(a.getType(), b.getType())
+                    && Objects.equals(a.getLocation(), b.getLocation())
+                    && Objects.equals(a.getCapacityKg(), b.getCapacityKg())
+                    && Objects.equals(a.getLastMaintenance(), b.getLastMaintenance())
+                    && Objects.equals(a.getAssignedConsignmentId(), b.getAssignedConsignmentId())
+                    && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt())
+                    && Objects.equals(a.getVersion(), b.getVersion());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.courier.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Normalizes the free-form weight and capacity strings ("1200 kg", "5 tons", "1,500") to kilograms.
+// Runs when a value is written so reads and range filters work on the stored number.
+// Keep in step with parse_kilograms() in add-numeric-weight-columns.sql.
+public final class Kilograms {
+
+    private static final Pattern QUANTITY = Pattern.compile("^\\s*([0-9][0-9,]*(?:\\.[0-9]+)?|\\.[0-9]+)\\s*([a-z]*)\\.?\\s*$");
+    
+    // A bare number is taken as kilograms, matching the "(kg)" labels in the forms
+    private static final Map<String, Double> UNITS = Map.ofEntries(
+            Map.entry("", 1.0),
+            Map.entry("kg", 1.0),
+            Map.entry("kgs", 1.0),
+            Map.entry("kilo", 1.0),
+            Map.entry("kilos", 1.0),
+            Map.entry("kilogram", 1.0),
+            Map.entry("kilograms", 1.0),
+            Map.entry("g", 0.001),
+            Map.entry("gram", 0.001),
+            Map.entry("grams", 0.001),
+            Map.entry("t", 1000.0),
+            Map.entry("ton", 1000.0),
+            Map.entry("tons", 1000.0),
+            Map.entry("tonne", 1000.0),
+            Map.entry("tonnes", 1000.0),
+            Map.entry("lb", 0.45359237),
+            Map.entry("lbs", 0.45359237),
+            Map.entry("pound", 0.45359237),
+            Map.entry("pounds", 0.45359237));
+    
+    private Kilograms() {
+    }
+    
+    // Returns null for a missing value; throws IllegalArgumentException for one it cannot read
+    public static Double parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        
+        Matcher matcher = QUANTITY.matcher(value.toLowerCase(Locale.ROOT));
+        Double factor = matcher.matches() ? UNITS.get(matcher.group(2)) : null;
+        if (factor == null) {
+            throw new IllegalArgumentException("Unrecognised quantity: " + value);
+        }
+        
+        return Double.parseDouble(matcher.group(1).replace(",", "")) * factor;
+    }
+}
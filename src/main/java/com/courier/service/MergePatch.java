@@ -0,0 +1,83 @@
+package com.courier.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// A JSON Merge Patch (RFC 7386) document read against a DTO type. Only members present in the patch
+// are applied, an explicit null clears the field, and a setter runs only when the value really differs,
+// so untouched columns never become dirty and a patch that changes nothing writes nothing.
+// Values are bound through the DTO, so they use the same formats as the GET response.
+class MergePatch<D> {
+
+    private final JsonNode document;
+    private final D values;
+    private boolean changed;
+    
+    private MergePatch(JsonNode document, D values) {
+        this.document = document;
+        this.values = values;
+    }
+    
+    static <D> MergePatch<D> read(ObjectMapper objectMapper, JsonNode document, Class<D> type, Set<String> fields) {
+        if (document == null || !document.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        for (Iterator<String> names = document.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!fields.contains(name)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + name);
+            }
+        }
+        
+        try {
+            return new MergePatch<>(document, objectMapper.treeToValue(document, type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+    }
+    
+    boolean has(String field) {
+        return document.has(field);
+    }
+    
+    D values() {
+        return values;
+    }
+    
+    boolean isChanged() {
+        return changed;
+    }
+    
+    void markChanged() {
+        changed = true;
+    }
+    
+    // Applies an optional field; returns true if the value changed
+    <T> boolean set(String field, T current, Function<D, T> value, Consumer<T> setter) {
+        if (!document.has(field)) {
+            return false;
+        }
+        T next = value.apply(values);
+        if (Objects.equals(current, next)) {
+            return false;
+        }
+        setter.accept(next);
+        changed = true;
+        return true;
+    }
+    
+    // Applies a field that cannot be cleared
+    <T> boolean require(String field, T current, Function<D, T> value, Consumer<T> setter) {
+        if (document.has(field) && value.apply(values) == null) {
+            throw new IllegalArgumentException(field + " cannot be removed");
+        }
+        return set(field, current, value, setter);
+    }
+}
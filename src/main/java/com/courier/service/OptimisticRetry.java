@@ -0,0 +1,32 @@
+package com.courier.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Runs a unit of work in its own transaction and replays it when it loses a version check
+// or lock race, up to courier.concurrency.max-attempts times. A lost truck claim is final.
+@Component
+public class OptimisticRetry {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${courier.concurrency.max-attempts:3}")
+    private int maxAttempts;
+    
+    public <T> T execute(TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts || e instanceof TruckClaimedException) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.courier.service;
+
+import com.courier.dto.ReportRowDTO;
+import com.courier.dto.RollupRebuildDTO;
+import com.courier.repository.ConsignmentRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Report figures come from the daily rollups, so their cost grows with the number of days
+// in the range rather than with the number of consignments
+@Service
+public class ReportService {
+
+    @Autowired
+    private ConsignmentRollupRepository rollupRepository;
+    
+    @Transactional(readOnly = true)
+    public List<ReportRowDTO> getConsignmentReport(String groupBy, LocalDate from, LocalDate to, String status) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return rollupRepository.summarize(groupBy, from, to, status);
+    }
+    
+    @Transactional
+    public RollupRebuildDTO rebuildRollups() {
+        long started = System.nanoTime();
+        int rows = rollupRepository.rebuild();
+        return new RollupRebuildDTO(rows, (System.nanoTime() - started) / 1_000_000);
+    }
+}
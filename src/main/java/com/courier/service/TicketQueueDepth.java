@@ -0,0 +1,132 @@
+package com.courier.service;
+
+import com.courier.datasource.ReadRouting;
+import com.courier.repository.SupportTicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live count of open and in-progress tickets per priority, without a COUNT(*) per request and
+// without a shared counter row every ticket write would queue on. Writers report status moves,
+// which are applied in memory once their transaction commits; a periodic recount from the database
+// corrects drift from other instances or writes that bypassed the service.
+// Published as the courier.tickets.queued{status, priority} gauges.
+@Component
+public class TicketQueueDepth {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketQueueDepth.class);
+    
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+    
+    // status -> priority -> count, fixed at startup so readers never see the maps change
+    private final Map<String, Map<String, AtomicLong>> counts = new LinkedHashMap<>();
+    
+    // Each move is its own object, so identical moves in one transaction are all kept
+    private final AfterCommitCollector<Move> pendingMoves = new AfterCommitCollector<>(this::apply);
+    
+    // Bumped on every applied move so a recount never overwrites newer state
+    private long generation;
+    
+    public TicketQueueDepth(MeterRegistry registry) {
+        for (String status : TicketService.QUEUED_STATUSES) {
+            Map<String, AtomicLong> byPriority = new LinkedHashMap<>();
+            for (String priority : TicketService.PRIORITIES) {
+                AtomicLong count = new AtomicLong();
+                byPriority.put(priority, count);
+                Gauge.builder("courier.tickets.queued", count, AtomicLong::get)
+                        .tag("status", status)
+                        .tag("priority", priority)
+                        .register(registry);
+            }
+            counts.put(status, byPriority);
+        }
+    }
+    
+    // fromStatus is null for a new ticket; statuses outside the queue are ignored
+    public void movedAfterCommit(String fromStatus, String toStatus, String priority) {
+        pendingMoves.add(new Move(fromStatus, toStatus, priority));
+    }
+    
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        counts.forEach((status, byPriority) -> {
+            Map<String, Long> values = new LinkedHashMap<>();
+            byPriority.forEach((priority, count) -> values.put(priority, count.get()));
+            result.put(status, values);
+        });
+        return result;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${courier.tickets.depth-refresh-ms:30000}",
+            initialDelayString = "${courier.tickets.depth-refresh-ms:30000}")
+    public void recount() {
+        long observed;
+        synchronized (this) {
+            observed = generation;
+        }
+        
+        Map<String, Map<String, Long>> fresh = new HashMap<>();
+        List<Object[]> rows = ReadRouting.onPrimary(
+                () -> ticketRepository.countByStatusAndPriority(TicketService.QUEUED_STATUSES));
+        for (Object[] row : rows) {
+            fresh.computeIfAbsent((String) row[0], status -> new HashMap<>()).put((String) row[1], (Long) row[2]);
+        }
+        
+        synchronized (this) {
+            if (generation != observed) {
+                // A commit landed while we were counting; recount next round
+                return;
+            }
+            counts.forEach((status, byPriority) -> byPriority.forEach((priority, count) -> {
+                long actual = fresh.getOrDefault(status, Map.of()).getOrDefault(priority, 0L);
+                long previous = count.getAndSet(actual);
+                if (previous != actual) {
+                    log.debug("Ticket queue depth {}/{} corrected from {} to {}", status, priority, previous, actual);
+                }
+            }));
+        }
+    }
+    
+    private synchronized void apply(Set<Move> moves) {
+        for (Move move : moves) {
+            adjust(move.fromStatus, move.priority, -1);
+            adjust(move.toStatus, move.priority, 1);
+        }
+        generation++;
+    }
+    
+    private void adjust(String status, String priority, int delta) {
+        Map<String, AtomicLong> byPriority = status != null ? counts.get(status) : null;
+        AtomicLong count = byPriority != null ? byPriority.get(priority) : null;
+        if (count != null) {
+            count.addAndGet(delta);
+        }
+    }
+    
+    private static final class Move {
+        final String fromStatus;
+        final String toStatus;
+        final String priority;
+        
+        Move(String fromStatus, String toStatus, String priority) {
+            this.fromStatus = fromStatus;
+            this.toStatus = toStatus;
+            this.priority = priority;
+        }
+    }
+}
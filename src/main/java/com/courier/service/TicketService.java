@@ -0,0 +1,218 @@
+package com.courier.service;
+
+import com.courier.dto.PageCursor;
+import com.courier.dto.PageResponse;
+import com.courier.dto.TicketDTO;
+import com.courier.dto.TicketSummaryDTO;
+import com.courier.id.IdGenerator;
+import com.courier.id.IdGeneratorConfig;
+import com.courier.model.SupportTicket;
+import com.courier.model.UserRole;
+import com.courier.repository.ConsignmentRepository;
+import com.courier.repository.SupportTicketRepository;
+import com.courier.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Support ticket queue: customers open tickets, agents claim the most urgent, oldest open ticket
+// and resolve or release it. Claims and transitions are single conditional statements, so agents
+// working the queue in parallel never block one another.
+@Service
+public class TicketService {
+
+    // Most urgent first; a ticket's priority_rank is its position in this list
+    static final List<String> PRIORITIES = List.of("urgent", "high", "medium", "low");
+    
+    // Statuses counted as queue depth
+    static final List<String> QUEUED_STATUSES = List.of("open", "in-progress");
+    
+    private static final String DEFAULT_PRIORITY = "medium";
+    
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ConsignmentRepository consignmentRepository;
+    
+    @Autowired
+    private ConsignmentArchive consignmentArchive;
+    
+    @Autowired
+    private TicketQueueDepth queueDepth;
+    
+    @Autowired
+    @Qualifier(IdGeneratorConfig.TICKET_ID_GENERATOR)
+    private IdGenerator idGenerator;
+    
+    @Value("${courier.pagination.default-page-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${courier.pagination.max-page-size:1000}")
+    private int maxPageSize;
+    
+    @Transactional
+    public TicketDTO createTicket(String userId, TicketDTO ticketDTO) {
+        if (isBlank(ticketDTO.getSubject()) || isBlank(ticketDTO.getDescription()) || isBlank(ticketDTO.getCategory())) {
+            throw new IllegalArgumentException("subject, description and category are required");
+        }
+        String priority = ticketDTO.getPriority() != null ? ticketDTO.getPriority() : DEFAULT_PRIORITY;
+        if (!PRIORITIES.contains(priority)) {
+            throw new IllegalArgumentException("priority must be one of " + PRIORITIES);
+        }
+        
+        SupportTicket ticket = new SupportTicket();
+        ticket.setId(idGenerator.nextId());
+        ticket.setSubject(ticketDTO.getSubject());
+        ticket.setDescription(ticketDTO.getDescription());
+        ticket.setCategory(ticketDTO.getCategory());
+        ticket.setPriority(priority);
+        ticket.setPriorityRank(PRIORITIES.indexOf(priority));
+        ticket.setStatus("open");
+        ticket.setUser(userRepository.getReferenceById(userId));
+        
+        if (ticketDTO.getConsignmentId() != null) {
+            // Tickets reference the hot table, so an archived consignment is brought back first
+            if (!consignmentRepository.existsById(ticketDTO.getConsignmentId())
+                    && !consignmentArchive.restore(ticketDTO.getConsignmentId())) {
+                throw new IllegalArgumentException("Unknown consignment " + ticketDTO.getConsignmentId());
+            }
+            ticket.setConsignment(consignmentRepository.getReferenceById(ticketDTO.getConsignmentId()));
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        ticket.setCreatedAt(now);
+        ticket.setUpdatedAt(now);
+        
+        SupportTicket savedTicket = ticketRepository.save(ticket);
+        queueDepth.movedAfterCommit(null, "open", priority);
+        return convertToDTO(savedTicket);
+    }
+    
+    // Visible to the ticket's owner, the agent holding it and staff; null otherwise
+    @Transactional(readOnly = true)
+    public TicketDTO getTicket(String id, String viewerId, UserRole viewerRole) {
+        Optional<SupportTicket> ticket = ticketRepository.findById(id);
+        if (ticket.isEmpty()) {
+            return null;
+        }
+        
+        TicketDTO dto = convertToDTO(ticket.get());
+        boolean visible = viewerId.equals(dto.getUserId()) || viewerId.equals(dto.getAssignedTo()) || isStaff(viewerRole);
+        return visible ? dto : null;
+    }
+    
+    // Tickets the user opened, newest first
+    @Transactional(readOnly = true)
+    public PageResponse<TicketSummaryDTO> getInbox(String userId, String cursor, Integer limit) {
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+        int pageSize = resolvePageSize(limit);
+        return page(ticketRepository.findInboxPage(userId, after, pageSize + 1), pageSize);
+    }
+    
+    // Tickets the agent claimed, newest first
+    @Transactional(readOnly = true)
+    public PageResponse<TicketSummaryDTO> getAssigned(String agentId, String cursor, Integer limit) {
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+        int pageSize = resolvePageSize(limit);
+        return page(ticketRepository.findAssignedPage(agentId, after, pageSize + 1), pageSize);
+    }
+    
+    // Null when no open ticket is left (in the category, if one is given)
+    @Transactional
+    public TicketDTO claimNextTicket(String agentId, String category) {
+        Optional<TicketDTO> claimed = ticketRepository.claimNext(agentId, category, LocalDateTime.now());
+        claimed.ifPresent(ticket -> queueDepth.movedAfterCommit("open", "in-progress", ticket.getPriority()));
+        return claimed.orElse(null);
+    }
+    
+    @Transactional
+    public TicketDTO resolveTicket(String id, String agentId) {
+        String priority = ticketRepository.resolveClaimed(id, agentId, LocalDateTime.now());
+        return afterTransition(id, priority, "resolved");
+    }
+    
+    // Hands the ticket back to the queue at its original position
+    @Transactional
+    public TicketDTO releaseTicket(String id, String agentId) {
+        String priority = ticketRepository.releaseClaimed(id, agentId, LocalDateTime.now());
+        return afterTransition(id, priority, "open");
+    }
+    
+    public Map<String, Map<String, Long>> getQueueDepth() {
+        return queueDepth.snapshot();
+    }
+    
+    // priority is null when the conditional update matched nothing
+    private TicketDTO afterTransition(String id, String priority, String toStatus) {
+        if (priority == null) {
+            if (!ticketRepository.existsById(id)) {
+                return null;
+            }
+            throw new IllegalStateException("Ticket " + id + " is not in progress with this agent");
+        }
+        
+        queueDepth.movedAfterCommit("in-progress", toStatus, priority);
+        return ticketRepository.findById(id).map(this::convertToDTO).orElse(null);
+    }
+    
+    private PageResponse<TicketSummaryDTO> page(List<TicketSummaryDTO> rows, int pageSize) {
+        // One extra row was read to learn whether another page follows
+        boolean hasMore = rows.size() > pageSize;
+        List<TicketSummaryDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            TicketSummaryDTO last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return new PageResponse<>(page, nextCursor);
+    }
+    
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+    
+    private static boolean isStaff(UserRole role) {
+        return role == UserRole.STAFF || role == UserRole.ADMIN;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    // Helper method to convert Entity to DTO
+    private TicketDTO convertToDTO(SupportTicket ticket) {
+        TicketDTO dto = new TicketDTO();
+        dto.setId(ticket.getId());
+        dto.setSubject(ticket.getSubject());
+        dto.setDescription(ticket.getDescription());
+        dto.setCategory(ticket.getCategory());
+        dto.setPriority(ticket.getPriority());
+        dto.setStatus(ticket.getStatus());
+        dto.setUserId(ticket.getUser() != null ? ticket.getUser().getId() : null);
+        dto.setConsignmentId(ticket.getConsignment() != null ? ticket.getConsignment().getId() : null);
+        dto.setAssignedTo(ticket.getAssignedTo());
+        dto.setClaimedAt(ticket.getClaimedAt());
+        dto.setCreatedAt(ticket.getCreatedAt());
+        dto.setUpdatedAt(ticket.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,12 @@
+package com.courier.service;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+// Another dispatcher claimed the truck first. A conflict like a lost version check, but final:
+// replaying the transaction would find the truck taken again, so OptimisticRetry does not retry it.
+public class TruckClaimedException extends ConcurrencyFailureException {
+
+    public TruckClaimedException(String truckId) {
+        super("Truck " + truckId + " is not available");
+    }
+}
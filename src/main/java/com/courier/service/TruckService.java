@@ -1,45 +1,167 @@
 package com.courier.service;
 
+import com.courier.cache.DtoCache;
+import com.courier.dto.BatchResult;
+import com.courier.dto.ChangeEvent;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.dto.PageCursor;
+import com.courier.dto.PageResponse;
 import com.courier.dto.TruckDTO;
+import com.courier.id.IdGenerator;
+import com.courier.id.IdGeneratorConfig;
 import com.courier.model.Consignment;
 import com.courier.model.Truck;
 import com.courier.repository.ConsignmentRepository;
+import com.courier.repository.TruckFilter;
 import com.courier.repository.TruckRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TruckService {
 
+    // The assignment lives on the consignment row; it is changed through allocation or PATCH /api/consignments
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "driver", "type", "capacity", "location", "status", "lastMaintenance");
+    
     @Autowired
     private TruckRepository truckRepository;
     
     @Autowired
     private ConsignmentRepository consignmentRepository;
     
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private FleetIndex fleetIndex;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private DtoCache<ConsignmentDTO> consignmentCache;
+    
+    @Autowired
+    private DtoCache<TruckDTO> truckCache;
+    
+    @Autowired
+    private DailyRollups dailyRollups;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    @Qualifier(IdGeneratorConfig.TRUCK_ID_GENERATOR)
+    private IdGenerator idGenerator;
+    
+    @Value("${courier.pagination.default-page-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${courier.pagination.max-page-size:1000}")
+    private int maxPageSize;
+    
+    @Value("${courier.bulk.max-ids:1000}")
+    private int maxBulkIds;
+    
+    private final TransactionTemplate readTemplate;
+    
+    public TruckService(PlatformTransactionManager transactionManager) {
+        // For the list reads the fleet index cannot answer; the index itself needs no transaction
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+    
+    @Transactional(readOnly = true)
     public List<TruckDTO> getAllTrucks() {
-        return truckRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        try (Stream<TruckDTO> trucks = truckRepository.streamByStatus(null)) {
+            return trucks.collect(Collectors.toList());
+        }
     }
     
     public List<TruckDTO> getTrucksByStatus(String status) {
-        return truckRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (fleetIndex.isReady()) {
+            return fleetIndex.find(new TruckFilter(status, null, null, null, null, null, null));
+        }
+        
+        return readTemplate.execute(tx -> {
+            try (Stream<TruckDTO> trucks = truckRepository.streamByStatus(status)) {
+                return trucks.collect(Collectors.toList());
+            }
+        });
+    }
+    
+    public PageResponse<TruckDTO> getTruckPage(String status, String type, String location,
+                                               Double minCapacityKg, Double maxCapacityKg,
+                                               LocalDate from, LocalDate to,
+                                               String cursor, Integer limit) {
+        if (minCapacityKg != null && maxCapacityKg != null && minCapacityKg > maxCapacityKg) {
+            throw new IllegalArgumentException("minCapacityKg must not exceed maxCapacityKg");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        
+        TruckFilter filter = new TruckFilter(status, type, location, minCapacityKg, maxCapacityKg, from, to);
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+        int pageSize = resolvePageSize(limit);
+        
+        // Read one extra row to learn whether another page follows
+        List<TruckDTO> rows = fleetIndex.isReady()
+                ? fleetIndex.page(filter, after, pageSize + 1)
+                : readTemplate.execute(tx -> truckRepository.findPage(filter, after, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<TruckDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            TruckDTO last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return new PageResponse<>(page, nextCursor);
     }
     
+    @Transactional(readOnly = true)
+    public void streamTrucks(String status, JsonGenerator generator) throws IOException {
+        try (Stream<TruckDTO> trucks = truckRepository.streamByStatus(status)) {
+            generator.writeStartArray();
+            
+            Iterator<TruckDTO> iterator = trucks.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            
+            generator.writeEndArray();
+        }
+    }
+    
+    // Served from the DTO cache; only a miss reaches the database
     public TruckDTO getTruckById(String id) {
-        Optional<Truck> truck = truckRepository.findById(id);
-        return truck.map(this::convertToDTO).orElse(null);
+        return truckCache.get(id, key -> truckRepository.findDtoById(key).orElse(null));
     }
     
     @Transactional
@@ -47,13 +169,12 @@ public class TruckService {
         Truck truck = new Truck();
         
         // Generate a unique ID
-        String id = "TRK-" + new Random().nextInt(1000);
+        String id = idGenerator.nextId();
         truck.setId(id);
         
         // Set last maintenance date if not provided
         if (truckDTO.getLastMaintenance() == null) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-            truck.setLastMaintenance(LocalDateTime.now().format(formatter));
+            truck.setLastMaintenance(LocalDate.now());
         } else {
             truck.setLastMaintenance(truckDTO.getLastMaintenance());
         }
@@ -65,6 +186,7 @@ public class TruckService {
         truck.setDriver(truckDTO.getDriver());
         truck.setType(truckDTO.getType());
         truck.setCapacity(truckDTO.getCapacity());
+        truck.setCapacityKg(Kilograms.parse(truckDTO.getCapacity()));
         truck.setLocation(truckDTO.getLocation());
         
         // Set timestamps
@@ -74,16 +196,20 @@ public class TruckService {
         
         // Save to database
         Truck savedTruck = truckRepository.save(truck);
+        fleetIndex.refreshAfterCommit(id);
+        truckCache.invalidateAfterCommit(id);
+        changeFeed.publishAfterCommit(ChangeEvent.truck("created", id, savedTruck.getStatus()));
         
-        return convertToDTO(savedTruck);
+        return convertToDTO(savedTruck, null);
     }
     
     @Transactional
-    public TruckDTO updateTruck(String id, TruckDTO truckDTO) {
+    public TruckDTO updateTruck(String id, TruckDTO truckDTO, String ifMatch) {
         Optional<Truck> optionalTruck = truckRepository.findById(id);
         
         if (optionalTruck.isPresent()) {
             Truck truck = optionalTruck.get();
+            checkPrecondition(truck, ifMatch);
             
             // Update fields
             if (truckDTO.getDriver() != null) {
@@ -94,6 +220,7 @@ public class TruckService {
             }
             if (truckDTO.getCapacity() != null) {
                 truck.setCapacity(truckDTO.getCapacity());
+                truck.setCapacityKg(Kilograms.parse(truckDTO.getCapacity()));
             }
             if (truckDTO.getLocation() != null) {
                 truck.setLocation(truckDTO.getLocation());
@@ -105,10 +232,21 @@ public class TruckService {
                 truck.setLastMaintenance(truckDTO.getLastMaintenance());
             }
             
-            // Update assigned consignment if provided
+            // Update assigned consignment if provided; the consignment owns the truck_id column
             if (truckDTO.getAssignedConsignmentId() != null) {
                 Optional<Consignment> optionalConsignment = consignmentRepository.findById(truckDTO.getAssignedConsignmentId());
-                optionalConsignment.ifPresent(truck::setAssignedConsignment);
+                optionalConsignment.ifPresent(consignment -> {
+                    // The truck it leaves loses its assignment
+                    Truck previousTruck = consignment.getTruck();
+                    if (previousTruck != null && !id.equals(previousTruck.getId())) {
+                        fleetIndex.refreshAfterCommit(previousTruck.getId());
+                        truckCache.invalidateAfterCommit(previousTruck.getId());
+                    }
+                    consignment.setTruck(truck);
+                    consignmentCache.invalidateAfterCommit(consignment.getId());
+                    changeFeed.publishAfterCommit(ChangeEvent.consignment(
+                            "updated", consignment.getId(), consignment.getStatus(), id));
+                });
             }
             
             // Update timestamp
@@ -116,70 +254,198 @@ public class TruckService {
             
             // Save to database
             Truck updatedTruck = truckRepository.save(truck);
+            fleetIndex.refreshAfterCommit(id);
+            truckCache.invalidateAfterCommit(id);
+            changeFeed.publishAfterCommit(ChangeEvent.truck("updated", id, updatedTruck.getStatus()));
             
-            return convertToDTO(updatedTruck);
+            return convertToDTO(updatedTruck, consignmentRepository.findAssignedConsignmentId(id));
         }
         
         return null;
     }
     
+    // Applies a JSON merge patch. Only the columns whose values change are written (@DynamicUpdate);
+    // a patch that changes nothing issues no UPDATE and keeps updatedAt.
+    @Transactional
+    public TruckDTO patchTruck(String id, JsonNode patch, String ifMatch) {
+        MergePatch<TruckDTO> mergePatch = MergePatch.read(objectMapper, patch, TruckDTO.class, PATCHABLE_FIELDS);
+        Optional<Truck> optionalTruck = truckRepository.findById(id);
+        
+        if (optionalTruck.isEmpty()) {
+            return null;
+        }
+        
+        Truck truck = optionalTruck.get();
+        checkPrecondition(truck, ifMatch);
+        mergePatch.require("driver", truck.getDriver(), TruckDTO::getDriver, truck::setDriver);
+        mergePatch.require("type", truck.getType(), TruckDTO::getType, truck::setType);
+        if (mergePatch.require("capacity", truck.getCapacity(), TruckDTO::getCapacity, truck::setCapacity)) {
+            truck.setCapacityKg(Kilograms.parse(truck.getCapacity()));
+        }
+        mergePatch.require("location", truck.getLocation(), TruckDTO::getLocation, truck::setLocation);
+        mergePatch.require("status", truck.getStatus(), TruckDTO::getStatus, truck::setStatus);
+        mergePatch.set("lastMaintenance", truck.getLastMaintenance(), TruckDTO::getLastMaintenance, truck::setLastMaintenance);
+        
+        if (mergePatch.isChanged()) {
+            // Flushed by dirty checking on commit
+            truck.setUpdatedAt(LocalDateTime.now());
+            fleetIndex.refreshAfterCommit(id);
+            truckCache.invalidateAfterCommit(id);
+            changeFeed.publishAfterCommit(ChangeEvent.truck("updated", id, truck.getStatus()));
+        }
+        
+        return convertToDTO(truck, consignmentRepository.findAssignedConsignmentId(id));
+    }
+    
     @Transactional
     public boolean deleteTruck(String id) {
         if (truckRepository.existsById(id)) {
+            // Consignments pointing at the truck lose it along with their cached truckId
+            for (Consignment consignment : consignmentRepository.findByTruckId(id)) {
+                consignmentCache.invalidateAfterCommit(consignment.getId());
+            }
             truckRepository.deleteById(id);
+            fleetIndex.refreshAfterCommit(id);
+            truckCache.invalidateAfterCommit(id);
+            changeFeed.publishAfterCommit(ChangeEvent.truck("deleted", id, null));
             return true;
         }
         return false;
     }
     
-    @Transactional
     public TruckDTO markAsAvailable(String truckId) {
-        Optional<Truck> optionalTruck = truckRepository.findById(truckId);
-        
-        if (optionalTruck.isPresent()) {
-            Truck truck = optionalTruck.get();
+        return optimisticRetry.execute(status -> {
+            Optional<Truck> optionalTruck = truckRepository.findById(truckId);
             
-            // Get the consignment before updating truck
-            Consignment consignment = truck.getAssignedConsignment();
+            if (optionalTruck.isPresent()) {
+                Truck truck = optionalTruck.get();
+                
+                // Update truck
+                truck.setStatus("available");
+                truck.setUpdatedAt(LocalDateTime.now());
+                
+                // Update consignment if assigned
+                for (Consignment consignment : consignmentRepository.findByTruckId(truckId)) {
+                    DailyRollups.Contribution before = DailyRollups.capture(consignment);
+                    consignment.setStatus("pending");
+                    consignment.setTruck(null);
+                    consignment.setUpdatedAt(LocalDateTime.now());
+                    consignmentRepository.save(consignment);
+                    dailyRollups.changed(before, consignment);
+                    consignmentCache.invalidateAfterCommit(consignment.getId());
+                    changeFeed.publishAfterCommit(ChangeEvent.consignment("released", consignment.getId(), "pending", truckId));
+                }
+                
+                // Save truck; both rows are version checked on flush
+                Truck updatedTruck = truckRepository.save(truck);
+                fleetIndex.refreshAfterCommit(truckId);
+                truckCache.invalidateAfterCommit(truckId);
+                changeFeed.publishAfterCommit(ChangeEvent.truck("released", truckId, "available"));
+                
+                return convertToDTO(updatedTruck, null);
+            }
             
-            // Update truck
-            truck.setStatus("available");
-            truck.setAssignedConsignment(null);
-            truck.setUpdatedAt(LocalDateTime.now());
+            return null;
+        });
+    }
+    
+    // markAsAvailable for many trucks in one transaction and a fixed number of statements:
+    // lock the trucks, lock the consignments they carry, then one UPDATE per table. Trucks already
+    // available with nothing assigned are left untouched.
+    public BatchResult releaseAll(List<String> ids) {
+        List<String> distinctIds = BulkIds.distinct(ids, maxBulkIds);
+        
+        return optimisticRetry.execute(status -> {
+            Map<String, Truck> trucks = truckRepository.lockAllById(distinctIds).stream()
+                    .collect(Collectors.toMap(Truck::getId, Function.identity()));
             
-            // Update consignment if assigned
-            if (consignment != null) {
-                consignment.setStatus("pending");
-                consignment.setTruck(null);
-                consignment.setUpdatedAt(LocalDateTime.now());
-                consignmentRepository.save(consignment);
+            // Every consignment still pointing at one of the trucks goes back to pending
+            Set<String> loaded = new HashSet<>();
+            List<String> toReset = new ArrayList<>();
+            if (!trucks.isEmpty()) {
+                for (Consignment consignment : consignmentRepository.lockAllByTruckIds(trucks.keySet())) {
+                    String truckId = consignment.getTruck().getId();
+                    loaded.add(truckId);
+                    toReset.add(consignment.getId());
+                    dailyRollups.statusChanged(DailyRollups.capture(consignment), "pending");
+                    consignmentCache.invalidateAfterCommit(consignment.getId());
+                    changeFeed.publishAfterCommit(ChangeEvent.consignment("released", consignment.getId(), "pending", truckId));
+                }
             }
             
-            // Save truck
-            Truck updatedTruck = truckRepository.save(truck);
+            List<String> toRelease = new ArrayList<>();
+            for (Truck truck : trucks.values()) {
+                if ("available".equals(truck.getStatus()) && !loaded.contains(truck.getId())) {
+                    continue;
+                }
+                toRelease.add(truck.getId());
+                fleetIndex.refreshAfterCommit(truck.getId());
+                truckCache.invalidateAfterCommit(truck.getId());
+                changeFeed.publishAfterCommit(ChangeEvent.truck("released", truck.getId(), "available"));
+            }
             
-            return convertToDTO(updatedTruck);
+            LocalDateTime now = LocalDateTime.now();
+            if (!toReset.isEmpty()) {
+                consignmentRepository.releaseAll(toReset, now);
+            }
+            if (!toRelease.isEmpty()) {
+                truckRepository.markAllAvailable(toRelease, now);
+            }
+            
+            Set<String> released = new HashSet<>(toRelease);
+            BatchResult result = new BatchResult();
+            Set<String> reported = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                if (!reported.add(id)) {
+                    result.addFailure(i, id, "duplicate", "Id appears earlier in the request");
+                } else if (!trucks.containsKey(id)) {
+                    result.addFailure(i, id, "not_found", "Truck not found");
+                } else {
+                    result.addSuccess(i, id, released.contains(id) ? "released" : "unchanged");
+                }
+            }
+            return result;
+        });
+    }
+    
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+    
+    // If-Match is checked against the row as loaded; the @Version check on flush covers a write that
+    // commits in between
+    private void checkPrecondition(Truck truck, String ifMatch) {
+        if (ifMatch == null) {
+            return;
+        }
+        TruckDTO current = convertToDTO(truck, consignmentRepository.findAssignedConsignmentId(truck.getId()));
+        if (!EntityTags.matches(ifMatch, EntityTags.of(current))) {
+            throw new OptimisticLockingFailureException("Truck " + truck.getId() + " has changed");
         }
-        
-        return null;
     }
     
     // Helper method to convert Entity to DTO
-    private TruckDTO convertToDTO(Truck truck) {
+    private TruckDTO convertToDTO(Truck truck, String assignedConsignmentId) {
         TruckDTO dto = new TruckDTO();
         dto.setId(truck.getId());
         dto.setDriver(truck.getDriver());
         dto.setType(truck.getType());
         dto.setCapacity(truck.getCapacity());
+        dto.setCapacityKg(truck.getCapacityKg());
         dto.setLocation(truck.getLocation());
         dto.setStatus(truck.getStatus());
         dto.setLastMaintenance(truck.getLastMaintenance());
         dto.setCreatedAt(truck.getCreatedAt());
         dto.setUpdatedAt(truck.getUpdatedAt());
-        
-        if (truck.getAssignedConsignment() != null) {
-            dto.setAssignedConsignmentId(truck.getAssignedConsignment().getId());
-        }
+        dto.setVersion(truck.getVersion());
+        dto.setAssignedConsignmentId(assignedConsignmentId);
         
         return dto;
     }
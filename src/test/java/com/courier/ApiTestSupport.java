@@ -0,0 +1,108 @@
+package com.courier;
+
+import com.courier.model.User;
+import com.courier.model.UserRole;
+import com.courier.security.JwtService;
+import com.courier.service.FleetIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Boots the full application on a random port against in-memory H2 ("test" profile) and calls it
+// over HTTP with a token for a staff user. Rows are seeded through plain JDBC; every test uses
+// fresh ids so the by-id caches and the fleet index never see rows from another test.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public abstract class ApiTestSupport {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    @Autowired
+    protected TestRestTemplate rest;
+    
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    protected FleetIndex fleetIndex;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    protected <T> ResponseEntity<T> exchange(HttpMethod method, String url, Object body, Class<T> type) {
+        return exchange(method, url, body, new HttpHeaders(), type);
+    }
+    
+    protected <T> ResponseEntity<T> exchange(HttpMethod method, String url, Object body, HttpHeaders headers,
+                                             Class<T> type) {
+        headers.setBearerAuth(staffToken());
+        return rest.exchange(url, method, new HttpEntity<>(body, headers), type);
+    }
+    
+    protected String staffToken() {
+        User user = new User();
+        user.setId("USR-test");
+        user.setEmail("dispatcher@example.com");
+        user.setRole(UserRole.STAFF);
+        return jwtService.issue(user);
+    }
+    
+    // A prefix unique to the calling test keeps its rows apart from everything else in the database
+    protected static String uniquePrefix() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+    
+    protected List<String> seedConsignments(String prefix, int count, String status) {
+        List<String> ids = IntStream.range(0, count)
+                .mapToObj(i -> String.format("C%s-%05d", prefix, i))
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("INSERT INTO consignments (id, customer, type, weight, weight_kg, destination, "
+                        + "status, date, contact, email, version, created_at, updated_at) "
+                        + "VALUES (?, ?, 'parcel', '5 kg', 5.0, 'Boston, MA', ?, ?, '555-0100', ?, 0, ?, ?)",
+                ids, ids.size(), (ps, id) -> {
+                    ps.setString(1, id);
+                    ps.setString(2, "Customer " + id);
+                    ps.setString(3, status);
+                    ps.setObject(4, LocalDate.of(2024, 1, 1));
+                    ps.setString(5, id.toLowerCase() + "@example.com");
+                    ps.setObject(6, EPOCH);
+                    ps.setObject(7, EPOCH);
+                });
+        return ids;
+    }
+    
+    protected List<String> seedTrucks(String prefix, int count) {
+        List<String> ids = IntStream.range(0, count)
+                .mapToObj(i -> String.format("T%s-%05d", prefix, i))
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("INSERT INTO trucks (id, driver, type, capacity, capacity_kg, location, status, "
+                        + "last_maintenance, version, created_at, updated_at) "
+                        + "VALUES (?, ?, 'Box Truck', '5000 kg', ?, 'Boston, MA', 'available', ?, 0, ?, ?)",
+                ids, ids.size(), (ps, id) -> {
+                    ps.setString(1, id);
+                    ps.setString(2, "Driver " + id);
+                    ps.setObject(3, 5000.0, Types.DOUBLE);
+                    ps.setObject(4, LocalDate.of(2024, 1, 1));
+                    ps.setObject(5, EPOCH);
+                    ps.setObject(6, EPOCH);
+                });
+        
+        // The fleet index loads once at startup; pick up the seeded trucks
+        fleetIndex.load();
+        return ids;
+    }
+}
@@ -0,0 +1,67 @@
+package com.courier;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+// Boots the application against an embedded PostgreSQL server, for the code paths that rely on
+// PostgreSQL-only SQL (SKIP LOCKED claims, partitioned archive, DELETE ... RETURNING). One server is
+// shared by every subclass and stopped when the JVM exits; Hibernate recreates the schema for each
+// context. initdb refuses to run as root, so these tests are skipped there.
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+public abstract class PostgresTestSupport {
+
+    private static EmbeddedPostgres postgres;
+    
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    
+    @BeforeAll
+    static synchronized void startPostgres() throws IOException {
+        assumeFalse("root".equals(System.getProperty("user.name")), "initdb does not run as root");
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+    }
+    
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+    
+    protected void insertConsignment(String id, String status, LocalDateTime updatedAt) {
+        jdbcTemplate.update("INSERT INTO consignments (id, customer, type, weight, weight_kg, destination, status, "
+                        + "date, contact, email, version, created_at, updated_at) "
+                        + "VALUES (?, ?, 'parcel', '5 kg', 5.0, 'Boston, MA', ?, ?, '555-0100', ?, 0, ?, ?)",
+                id, "Customer " + id, status, LocalDate.of(2024, 1, 1), id.toLowerCase() + "@example.com",
+                updatedAt.minusDays(3), updatedAt);
+    }
+    
+    protected void insertTruck(String id, String status) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO trucks (id, driver, type, capacity, capacity_kg, location, status, "
+                        + "last_maintenance, version, created_at, updated_at) "
+                        + "VALUES (?, ?, 'Box Truck', '5000 kg', 5000.0, 'Boston, MA', ?, ?, 0, ?, ?)",
+                id, "Driver " + id, status, LocalDate.of(2024, 1, 1), now, now);
+    }
+}
@@ -0,0 +1,75 @@
+package com.courier.controller;
+
+import com.courier.ApiTestSupport;
+import com.courier.metrics.AllocationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many dispatchers allocate different consignments to the same truck at the same moment: the
+// conditional claim lets exactly one of them through and every other one gets 409 Conflict.
+class AllocationConcurrencyTest extends ApiTestSupport {
+
+    private static final int DISPATCHERS = 16;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void concurrentAllocationsToOneTruckBookItOnce() throws Exception {
+        String truckId = seedTrucks(uniquePrefix(), 1).get(0);
+        List<String> consignmentIds = seedConsignments(uniquePrefix(), DISPATCHERS, "pending");
+        double conflicts = allocations(AllocationMetrics.CONFLICT);
+        double failures = allocations(AllocationMetrics.FAILURE);
+        
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> results = new ArrayList<>();
+        try {
+            for (String consignmentId : consignmentIds) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return exchange(HttpMethod.POST, "/api/consignments/" + consignmentId + "/allocate/" + truckId,
+                            null, String.class).getStatusCode();
+                }));
+            }
+            start.countDown();
+            
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> result : results) {
+                statuses.add(result.get(30, TimeUnit.SECONDS));
+            }
+            
+            assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.OK)).hasSize(1);
+            assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CONFLICT)).hasSize(DISPATCHERS - 1);
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consignments WHERE truck_id = ?",
+                Integer.class, truckId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM trucks WHERE id = ?", String.class, truckId))
+                .isEqualTo("in-transit");
+        
+        // A lost claim is a conflict on the dashboard, the same as in auto allocation
+        assertThat(allocations(AllocationMetrics.CONFLICT) - conflicts).isEqualTo(DISPATCHERS - 1);
+        assertThat(allocations(AllocationMetrics.FAILURE) - failures).isZero();
+    }
+    
+    private double allocations(String outcome) {
+        return meterRegistry.counter("courier.allocations", "mode", "manual", "outcome", outcome).count();
+    }
+}
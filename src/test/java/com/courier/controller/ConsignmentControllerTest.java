@@ -0,0 +1,97 @@
+package com.courier.controller;
+
+import com.courier.ApiTestSupport;
+import com.courier.dto.ConsignmentDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsignmentControllerTest extends ApiTestSupport {
+
+    @Test
+    void getByIdReturnsTheConsignmentOnMissAndCacheHit() {
+        String id = seedConsignments(uniquePrefix(), 1, "pending").get(0);
+        
+        // The first call loads through the cache loader, the second is served from the cache
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<ConsignmentDTO> response = exchange(HttpMethod.GET, "/api/consignments/" + id, null, ConsignmentDTO.class);
+            
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getId()).isEqualTo(id);
+            assertThat(response.getBody().getStatus()).isEqualTo("pending");
+        }
+    }
+    
+    @Test
+    void getByIdReturnsNotFoundForUnknownId() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/api/consignments/C-missing", null, String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+    
+    @Test
+    void listRevalidationAgreesWithThePlainReadTag() {
+        String status = "held-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        List<String> ids = seedConsignments(uniquePrefix(), 3, status);
+        String url = "/api/consignments?limit=2&status=" + status;
+        
+        // The plain read tags the fetched page, including its next cursor
+        ResponseEntity<JsonNode> first = exchange(HttpMethod.GET, url, null, JsonNode.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().get("hasMore").asBoolean()).isTrue();
+        assertThat(etag).startsWith("W/");
+        
+        // The revalidation tags the same page from the version query
+        assertThat(exchange(HttpMethod.GET, url, null, ifNoneMatch(etag), JsonNode.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+        
+        jdbcTemplate.update("UPDATE consignments SET version = version + 1 WHERE id = ?", ids.get(0));
+        
+        ResponseEntity<JsonNode> changed = exchange(HttpMethod.GET, url, null, ifNoneMatch(etag), JsonNode.class);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag())
+                .isNotEqualTo(etag)
+                .isEqualTo(exchange(HttpMethod.GET, url, null, JsonNode.class).getHeaders().getETag());
+    }
+    
+    @Test
+    void batchResultsFollowInputOrder() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = "[" + batchItem("Ada") + ", {\"customer\": \"\"}, " + batchItem("Grace") + ", 42]";
+        
+        // The rejected items are recorded before the accepted ones are written
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.POST, "/api/consignments/batch", body, headers, JsonNode.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("succeeded").asInt()).isEqualTo(2);
+        assertThat(response.getBody().get("failed").asInt()).isEqualTo(2);
+        JsonNode items = response.getBody().get("items");
+        for (int i = 0; i < 4; i++) {
+            assertThat(items.get(i).get("index").asInt()).isEqualTo(i);
+        }
+        assertThat(items.get(0).get("outcome").asText()).isEqualTo("created");
+        assertThat(items.get(1).get("outcome").asText()).isEqualTo("rejected");
+    }
+    
+    private static String batchItem(String customer) {
+        return "{\"customer\": \"" + customer + "\", \"type\": \"parcel\", \"weight\": \"5 kg\", "
+                + "\"destination\": \"Boston, MA\"}";
+    }
+    
+    private static HttpHeaders ifNoneMatch(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return headers;
+    }
+}
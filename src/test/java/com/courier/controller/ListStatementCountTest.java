@@ -0,0 +1,102 @@
+package com.courier.controller;
+
+import com.courier.ApiTestSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The list endpoints read DTO projections, so the number of statements per request is fixed and does
+// not grow with the rows on the page (no per-row truck or consignment lookups).
+class ListStatementCountTest extends ApiTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void consignmentListIsOneStatementAtAnyPageSize() {
+        String few = "few-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        String many = "many-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        seedConsignments(uniquePrefix(), 2, few);
+        seedConsignments(uniquePrefix(), 60, many);
+        
+        assertThat(statementsFor("/api/consignments?status=" + few, 2)).isEqualTo(1);
+        assertThat(statementsFor("/api/consignments?status=" + many, 60)).isEqualTo(1);
+        assertThat(statementsFor("/api/consignments?limit=5&status=" + many, 5)).isEqualTo(1);
+    }
+    
+    @Test
+    void truckListIsServedWithoutStatementsAtAnyPageSize() {
+        seedTrucks(uniquePrefix(), 40);
+        
+        // Pages come from the in-memory fleet index
+        assertThat(statementsFor("/api/trucks?status=available&limit=2", 2)).isZero();
+        assertThat(statementsFor("/api/trucks?status=available&limit=40", 40)).isZero();
+    }
+    
+    @Test
+    void truckStreamIsOneStatementAtAnyRowCount() {
+        String few = "few-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        String many = "many-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        assignTrucks(seedTrucks(uniquePrefix(), 2), few);
+        assignTrucks(seedTrucks(uniquePrefix(), 40), many);
+        
+        // The stream always reads the repository projection, so the correlated subquery for the
+        // assigned consignment has to stay inside the one statement
+        assertThat(statementsFor("/api/trucks/stream?status=" + few, 2)).isEqualTo(1);
+        assertThat(statementsFor("/api/trucks/stream?status=" + many, 40)).isEqualTo(1);
+        
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.GET, "/api/trucks/stream?status=" + many, null, JsonNode.class);
+        response.getBody().forEach(truck -> assertThat(truck.get("assignedConsignmentId").asText()).startsWith("C"));
+    }
+    
+    @Test
+    void truckListOpensNoTransactionWhileTheIndexServesIt() {
+        seedTrucks(uniquePrefix(), 3);
+        
+        statistics.clear();
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.GET, "/api/trucks?status=available&limit=3", null, JsonNode.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getTransactionCount()).isZero();
+    }
+    
+    private long statementsFor(String url, int expectedItems) {
+        statistics.clear();
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.GET, url, null, JsonNode.class);
+        long statements = statistics.getPrepareStatementCount();
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode body = response.getBody();
+        assertThat(body.isArray() ? body : body.get("items")).hasSize(expectedItems);
+        return statements;
+    }
+    
+    // Moves the trucks to a status of their own, each carrying an in-transit consignment
+    private void assignTrucks(List<String> truckIds, String status) {
+        List<String> consignmentIds = seedConsignments(uniquePrefix(), truckIds.size(), "in-transit");
+        for (int i = 0; i < truckIds.size(); i++) {
+            jdbcTemplate.update("UPDATE consignments SET truck_id = ? WHERE id = ?", truckIds.get(i), consignmentIds.get(i));
+            jdbcTemplate.update("UPDATE trucks SET status = ? WHERE id = ?", status, truckIds.get(i));
+        }
+        fleetIndex.load();
+    }
+}
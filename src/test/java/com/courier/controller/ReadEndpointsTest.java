@@ -0,0 +1,79 @@
+package com.courier.controller;
+
+import com.courier.ApiTestSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// open-in-view is off, so a repository call that streams or loads lazily outside a transaction fails
+// only at request time. Every read endpoint backed by a repository query is called here once.
+class ReadEndpointsTest extends ApiTestSupport {
+
+    @Test
+    void consignmentListFilteredByStatus() {
+        String status = "held-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        List<String> ids = seedConsignments(uniquePrefix(), 3, status);
+        
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.GET, "/api/consignments?status=" + status, null, JsonNode.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ids(response.getBody().get("items"))).containsExactlyInAnyOrderElementsOf(ids);
+    }
+    
+    @Test
+    void consignmentStream() {
+        String status = "held-" + uniquePrefix().toLowerCase(Locale.ROOT);
+        List<String> ids = seedConsignments(uniquePrefix(), 3, status);
+        
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.GET, "/api/consignments/stream?status=" + status, null, JsonNode.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ids(response.getBody())).containsExactlyInAnyOrderElementsOf(ids);
+    }
+    
+    @Test
+    void truckListAndStream() {
+        List<String> ids = seedTrucks(uniquePrefix(), 2);
+        
+        ResponseEntity<JsonNode> page = exchange(HttpMethod.GET, "/api/trucks?status=available&limit=1000", null, JsonNode.class);
+        ResponseEntity<JsonNode> stream = exchange(HttpMethod.GET, "/api/trucks/stream?status=available", null, JsonNode.class);
+        
+        assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ids(page.getBody().get("items"))).containsAll(ids);
+        assertThat(stream.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ids(stream.getBody())).containsAll(ids);
+    }
+    
+    @Test
+    void allocationPreviewReadsPendingConsignmentsAndAvailableTrucks() {
+        seedConsignments(uniquePrefix(), 1, "pending");
+        seedTrucks(uniquePrefix(), 1);
+        
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.POST, "/api/allocations/auto?dryRun=true", null, JsonNode.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("pendingConsignments").asInt()).isPositive();
+        assertThat(response.getBody().get("availableTrucks").asInt()).isPositive();
+    }
+    
+    @Test
+    void ticketInbox() {
+        ResponseEntity<JsonNode> response = exchange(HttpMethod.GET, "/api/tickets/inbox", null, JsonNode.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+    
+    private static List<String> ids(JsonNode items) {
+        List<String> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.get("id").asText()));
+        return ids;
+    }
+}
@@ -0,0 +1,34 @@
+package com.courier.controller;
+
+import com.courier.ApiTestSupport;
+import com.courier.dto.TruckDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TruckControllerTest extends ApiTestSupport {
+
+    @Test
+    void getByIdReturnsTheTruckOnMissAndCacheHit() {
+        String id = seedTrucks(uniquePrefix(), 1).get(0);
+        
+        // The first call loads through the cache loader, the second is served from the cache
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<TruckDTO> response = exchange(HttpMethod.GET, "/api/trucks/" + id, null, TruckDTO.class);
+            
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getId()).isEqualTo(id);
+            assertThat(response.getBody().getStatus()).isEqualTo("available");
+        }
+    }
+    
+    @Test
+    void getByIdReturnsNotFoundForUnknownId() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/api/trucks/T-missing", null, String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,66 @@
+package com.courier.notification;
+
+import com.courier.PostgresTestSupport;
+import com.courier.dto.ConsignmentDTO;
+import com.courier.service.ConsignmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The outbox claim is PostgreSQL SQL, so the dispatcher runs here against the embedded server and
+// delivers to the in-memory sink
+@TestPropertySource(properties = {
+        "courier.outbox.dispatcher.enabled=true",
+        "courier.outbox.poll-interval-ms=100",
+        "courier.notifications.sink=memory"
+})
+class DeliveryNotificationTest extends PostgresTestSupport {
+
+    @Autowired
+    private ConsignmentService consignmentService;
+    
+    @Autowired
+    private InMemoryNotificationSink sink;
+    
+    @Test
+    void repeatedDeliveryNotifiesTheCustomerOnce() throws InterruptedException {
+        insertConsignment("CNTF-1", "pending", LocalDateTime.now());
+        
+        consignmentService.markAsDelivered("CNTF-1");
+        Long version = version("CNTF-1");
+        // A client retry of the same call
+        ConsignmentDTO retried = consignmentService.markAsDelivered("CNTF-1");
+        
+        assertThat(retried.getStatus()).isEqualTo("delivered");
+        assertThat(version("CNTF-1")).isEqualTo(version);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_outbox WHERE aggregate_id = ?", Integer.class, "CNTF-1"))
+                .isEqualTo(1);
+        
+        // Wait for the dispatcher to send it, then a few more polls for anything else
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (sentFor("CNTF-1").isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(500);
+        
+        assertThat(sentFor("CNTF-1")).containsExactly(Notification.DELIVERED);
+    }
+    
+    private Long version(String id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM consignments WHERE id = ?", Long.class, id);
+    }
+    
+    private List<String> sentFor(String consignmentId) {
+        return sink.getSent().stream()
+                .filter(notification -> consignmentId.equals(notification.getConsignmentId()))
+                .map(Notification::getEvent)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.courier.security;
+
+import com.courier.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tests run without metrics export unless asked for; the Prometheus endpoint only exists with it
+@AutoConfigureObservability(tracing = false)
+class ActuatorExposureTest extends ApiTestSupport {
+
+    @LocalServerPort
+    private int serverPort;
+    
+    @LocalManagementPort
+    private int managementPort;
+    
+    @Test
+    void metricsAreNotServedOnTheApiPort() {
+        ResponseEntity<String> response = rest.getForEntity(
+                "http://localhost:" + serverPort + "/actuator/prometheus", String.class);
+        
+        assertThat(response.getStatusCode()).isIn(HttpStatus.UNAUTHORIZED, HttpStatus.NOT_FOUND);
+    }
+    
+    @Test
+    void metricsAreNotServedOnTheApiPortEvenWithAToken() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/actuator/prometheus", null, String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+    
+    @Test
+    void metricsAreServedOnTheManagementPort() {
+        ResponseEntity<String> response = rest.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("courier_");
+    }
+    
+    @Test
+    void otherEndpointsOnTheManagementPortStillNeedATokenWithARole() {
+        ResponseEntity<String> response = rest.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/metrics", String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,100 @@
+package com.courier.security;
+
+import com.courier.ApiTestSupport;
+import com.courier.dto.EventTicket;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The change feed is opened with a short-lived ticket, never with the session token in the URL,
+// and a ticket is good for nothing but the change feed. The stream's headers go out with the first
+// heartbeat, so heartbeats are frequent here.
+@TestPropertySource(properties = "courier.events.heartbeat-ms=200")
+class EventTicketTest extends ApiTestSupport {
+
+    @LocalServerPort
+    private int serverPort;
+    
+    @Test
+    void ticketOpensTheChangeFeed() throws Exception {
+        EventTicket ticket = issueTicket(staffToken());
+        
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(eventsUrl("ticket=" + ticket.getTicket())))
+                        .timeout(Duration.ofSeconds(10))
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        response.body().close();
+        
+        assertThat(ticket.getExpiresInSeconds()).isPositive();
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_TYPE))
+                .hasValueSatisfying(type -> assertThat(type).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+    
+    @Test
+    void sessionTokenIsNotAcceptedInTheUrl() {
+        String token = staffToken();
+        
+        assertThat(rest.getForEntity(eventsUrl("access_token=" + token), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(rest.getForEntity(eventsUrl("ticket=" + token), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+    
+    @Test
+    void ticketIsNotABearerToken() {
+        String ticket = issueTicket(staffToken()).getTicket();
+        
+        assertThat(callWithBearer(HttpMethod.GET, "/api/consignments", ticket).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(callWithBearer(HttpMethod.POST, "/api/events/ticket", ticket).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+    
+    @Test
+    void loggingOutRevokesTheSessionsTickets() {
+        String token = staffToken();
+        String ticket = issueTicket(token).getTicket();
+        
+        assertThat(callWithBearer(HttpMethod.POST, "/api/auth/logout", token).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(rest.getForEntity(eventsUrl("ticket=" + ticket), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+    
+    private EventTicket issueTicket(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        ResponseEntity<EventTicket> response = rest.exchange(
+                "/api/events/ticket", HttpMethod.POST, new HttpEntity<>(headers), EventTicket.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+    
+    private ResponseEntity<String> callWithBearer(HttpMethod method, String url, String bearer) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(bearer);
+        return rest.exchange(url, method, new HttpEntity<>(headers), String.class);
+    }
+    
+    private String eventsUrl(String query) {
+        return "http://localhost:" + serverPort + "/api/events?" + query;
+    }
+}
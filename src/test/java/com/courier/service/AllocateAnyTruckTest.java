@@ -0,0 +1,76 @@
+package com.courier.service;
+
+import com.courier.PostgresTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// More dispatchers than free trucks ask for any truck at the same moment. FOR UPDATE SKIP LOCKED
+// hands each of them a different row: every truck is booked exactly once and the dispatchers left
+// over are told no truck is available instead of sharing one.
+class AllocateAnyTruckTest extends PostgresTestSupport {
+
+    private static final int TRUCKS = 10;
+    private static final int DISPATCHERS = 12;
+    private static final String NO_TRUCK = "none";
+    
+    @Autowired
+    private ConsignmentService consignmentService;
+    
+    @Test
+    void concurrentAllocationsLockDistinctTrucks() throws Exception {
+        for (int i = 0; i < TRUCKS; i++) {
+            insertTruck(String.format("T-ANY-%02d", i), "available");
+        }
+        List<String> consignmentIds = new ArrayList<>();
+        for (int i = 0; i < DISPATCHERS; i++) {
+            String id = String.format("C-ANY-%02d", i);
+            insertConsignment(id, "pending", LocalDateTime.now());
+            consignmentIds.add(id);
+        }
+        
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        List<String> outcomes = new ArrayList<>();
+        try {
+            for (String consignmentId : consignmentIds) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return consignmentService.allocateAnyTruck(consignmentId).getTruckId();
+                    } catch (IllegalStateException e) {
+                        assertThat(e).hasMessage("No truck is available");
+                        return NO_TRUCK;
+                    }
+                }));
+            }
+            start.countDown();
+            
+            for (Future<String> result : results) {
+                outcomes.add(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        List<String> trucks = outcomes.stream().filter(outcome -> !NO_TRUCK.equals(outcome)).toList();
+        assertThat(trucks).hasSize(TRUCKS).doesNotHaveDuplicates();
+        assertThat(outcomes).filteredOn(NO_TRUCK::equals).hasSize(DISPATCHERS - TRUCKS);
+        
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT truck_id) FROM consignments "
+                + "WHERE status = 'in-transit'", Integer.class)).isEqualTo(TRUCKS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trucks WHERE status = 'available'",
+                Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package com.courier.service;
+
+import com.courier.PostgresTestSupport;
+import com.courier.dto.ConsignmentDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "courier.archive.enabled=true",
+        "courier.archive.min-age-days=30",
+        "courier.archive.interval-ms=3600000",
+        "courier.archive.chunk-size=2"
+})
+class ConsignmentArchiveTest extends PostgresTestSupport {
+
+    @Autowired
+    private ConsignmentArchive consignmentArchive;
+    
+    @Autowired
+    private ConsignmentService consignmentService;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void archiveTable() {
+        // Hibernate creates the hot tables; the archive and its partitions are plain SQL
+        new ResourceDatabasePopulator(new FileSystemResource("create-consignment-archive.sql")).execute(dataSource);
+    }
+    
+    @Test
+    void movesOldDeliveredRowsIntoTheirMonthPartitionOnce() {
+        insertConsignment("CARC-1", "delivered", LocalDateTime.of(2024, 3, 5, 10, 0));
+        insertConsignment("CARC-2", "delivered", LocalDateTime.of(2024, 3, 20, 16, 30));
+        insertConsignment("CARC-3", "delivered", LocalDateTime.of(2024, 4, 2, 8, 15));
+        insertConsignment("CARC-4", "delivered", LocalDateTime.now().minusDays(1));
+        insertConsignment("CARC-5", "pending", LocalDateTime.of(2024, 3, 1, 9, 0));
+        
+        // Three chunks of at most two rows in one round
+        consignmentArchive.archiveDelivered();
+        
+        assertThat(ids("consignments_archive_2024_03")).containsExactlyInAnyOrder("CARC-1", "CARC-2");
+        assertThat(ids("consignments_archive_2024_04")).containsExactly("CARC-3");
+        assertThat(ids("consignments")).containsExactlyInAnyOrder("CARC-4", "CARC-5");
+        assertThat(moved()).isEqualTo(3);
+        
+        // By-id reads fall back to the archive
+        ConsignmentDTO archived = consignmentService.getConsignmentById("CARC-1");
+        assertThat(archived.getStatus()).isEqualTo("delivered");
+        
+        // A second round finds nothing left to move and changes nothing
+        consignmentArchive.archiveDelivered();
+        
+        assertThat(ids("consignments_archive")).containsExactlyInAnyOrder("CARC-1", "CARC-2", "CARC-3");
+        assertThat(ids("consignments")).containsExactlyInAnyOrder("CARC-4", "CARC-5");
+        assertThat(moved()).isEqualTo(3);
+    }
+    
+    private List<String> ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table, String.class);
+    }
+    
+    private double moved() {
+        return meterRegistry.counter("courier.archive.moved").count();
+    }
+}